@@ -3,9 +3,21 @@ package rocket;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 public class App {
     public static void main(String[] args) {
+        // Optional body catalog (CSV or .rcat): first argument or -Drocket.catalog=...
+        String catalog = args.length > 0 ? args[0] : System.getProperty("rocket.catalog");
+        if (catalog != null) {
+            try {
+                Catalog.setCurrent(Catalog.load(Paths.get(catalog)));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not load catalog " + catalog + ": " + e.getMessage() + " (using built-in bodies)");
+            }
+        }
+
         SwingUtilities.invokeLater(() -> {
             State state = new State();
             SimPanel panel = new SimPanel(state);
@@ -25,6 +37,9 @@ public class App {
             panel.addMouseListener(input);
             panel.addMouseMotionListener(input);
             panel.requestFocusInWindow();
+
+            // Physics runs on its own thread from here on
+            panel.start();
         });
     }
 }
@@ -0,0 +1,128 @@
+// File: src/rocket/BarnesHut.java
+package rocket;
+
+import java.util.Arrays;
+
+/**
+ * Barnes–Hut quadtree over a BodyStore, for catalogs large enough that the O(N) direct sum
+ * dominates (asteroid belts, moons, debris). Built in flat primitive arrays and reused across
+ * rebuilds; a cell is treated as one point mass at its center of mass when
+ * cellSize / distance < theta, otherwise it is opened.
+ *
+ * Owned by a single BodyStore and therefore by a single thread, like the store itself.
+ */
+public final class BarnesHut {
+    private static final int MAX_DEPTH = 48;   // deeper than this, coincident bodies share a bucket leaf
+
+    private final double theta2;
+
+    // Node arrays (index = node id); child slots are 4 per node, -1 = none
+    private double[] half = new double[0], bx = new double[0], by = new double[0];
+    private double[] m = new double[0], mx = new double[0], my = new double[0];
+    private int[] body = new int[0], child = new int[0], depth = new int[0]; // body: -1 empty leaf, -2 internal, else first resident
+    private int nodes = 0;
+    private int[] next = new int[0];            // bucket chains for leaves holding several bodies
+    private int[] stack = new int[0];
+
+    private BodyStore src;
+
+    public BarnesHut(double theta){ this.theta2 = theta * theta; }
+
+    /** (Re)build the tree from the store's current positions. */
+    public void build(BodyStore b){
+        src = b;
+        final int n = b.n;
+        ensureNodes(Math.max(16, 4 * n + 1));
+        if (next.length < n) next = new int[n];
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, b.x[i]); maxX = Math.max(maxX, b.x[i]);
+            minY = Math.min(minY, b.y[i]); maxY = Math.max(maxY, b.y[i]);
+        }
+        nodes = 0;
+        if (n == 0) return;
+        double h = 0.5 * Math.max(Math.max(maxX - minX, maxY - minY), 1.0) * (1.0 + 1e-9);
+        newNode(0.5 * (minX + maxX), 0.5 * (minY + maxY), h, 0);
+        for (int i = 0; i < n; i++) insert(0, i);
+        if (stack.length < 4 * MAX_DEPTH + 8) stack = new int[4 * MAX_DEPTH + 8];
+    }
+
+    /** Approximate net acceleration at (px,py); writes {ax, ay} into out. Same softening as Gravity. */
+    public void accel(double px, double py, double[] out){
+        double ax = 0.0, ay = 0.0;
+        if (nodes == 0) { out[0] = 0; out[1] = 0; return; }
+        final BodyStore b = src;
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int nd = stack[--sp];
+            if (m[nd] == 0.0) continue;
+            if (body[nd] >= 0) {
+                for (int i = body[nd]; i >= 0; i = next[i]) {
+                    double dx = px - b.x[i], dy = py - b.y[i], r2 = dx*dx + dy*dy;
+                    if (r2 > 1.0) { double k = -b.mu[i] / (r2 * Math.sqrt(r2)); ax += k * dx; ay += k * dy; }
+                }
+                continue;
+            }
+            double cx = mx[nd] / m[nd], cy = my[nd] / m[nd];
+            double dx = px - cx, dy = py - cy, r2 = dx*dx + dy*dy;
+            double size = 2.0 * half[nd];
+            if (size * size < theta2 * r2) {
+                double k = -m[nd] / (r2 * Math.sqrt(r2));
+                ax += k * dx; ay += k * dy;
+            } else {
+                int c0 = nd * 4;
+                for (int q = 0; q < 4; q++) if (child[c0 + q] >= 0) stack[sp++] = child[c0 + q];
+            }
+        }
+        out[0] = ax; out[1] = ay;
+    }
+
+    /** Insert body i starting at node nd (i's mass is added along the path). */
+    private void insert(int nd, int i){
+        final BodyStore b = src;
+        final double x = b.x[i], y = b.y[i], mu = b.mu[i];
+        next[i] = -1;
+        while (true) {
+            m[nd] += mu; mx[nd] += mu * x; my[nd] += mu * y;
+            if (body[nd] == -1) { body[nd] = i; return; }                                      // empty leaf
+            if (body[nd] >= 0) {
+                if (depth[nd] >= MAX_DEPTH) { next[i] = body[nd]; body[nd] = i; return; }      // bucket
+                // Split the leaf: re-home its residents one level down (their mass stays counted here)
+                int j = body[nd];
+                body[nd] = -2;
+                while (j >= 0) { int nj = next[j]; insert(childFor(nd, b.x[j], b.y[j]), j); j = nj; }
+            }
+            nd = childFor(nd, x, y);
+        }
+    }
+
+    private int childFor(int nd, double x, double y){
+        int q = (x >= bx[nd] ? 1 : 0) | (y >= by[nd] ? 2 : 0);
+        int slot = nd * 4 + q;
+        if (child[slot] < 0) {
+            double h = 0.5 * half[nd];
+            child[slot] = newNode(bx[nd] + ((q & 1) != 0 ? h : -h), by[nd] + ((q & 2) != 0 ? h : -h), h, depth[nd] + 1);
+        }
+        return child[slot];
+    }
+
+    private int newNode(double cx, double cy, double h, int d){
+        if (nodes == half.length) ensureNodes(nodes * 2);
+        int k = nodes++;
+        bx[k] = cx; by[k] = cy; half[k] = h; depth[k] = d;
+        m[k] = 0.0; mx[k] = 0.0; my[k] = 0.0; body[k] = -1;
+        int c0 = k * 4; child[c0] = child[c0 + 1] = child[c0 + 2] = child[c0 + 3] = -1;
+        return k;
+    }
+
+    private void ensureNodes(int cap){
+        if (half.length >= cap) return;
+        half = Arrays.copyOf(half, cap); bx = Arrays.copyOf(bx, cap); by = Arrays.copyOf(by, cap);
+        m = Arrays.copyOf(m, cap); mx = Arrays.copyOf(mx, cap); my = Arrays.copyOf(my, cap);
+        body = Arrays.copyOf(body, cap); depth = Arrays.copyOf(depth, cap);
+        child = Arrays.copyOf(child, cap * 4);
+    }
+}
@@ -0,0 +1,207 @@
+// File: src/rocket/Batch.java
+package rocket;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command-line runner: flies scenarios through the headless {@link Engine} as fast as the CPU
+ * allows and writes one CSV per scenario. No window, no EDT, works with java.awt.headless.
+ *
+ * <pre>
+ *   java rocket.Batch [--catalog bodies.csv|.rcat] [--out dir] scenario.txt...
+ * </pre>
+ *
+ * Scenario file ('#' starts a comment):
+ * <pre>
+ *   duration   = 3600      # sim seconds to run
+ *   sample     = 10        # CSV row interval (sim s), default 1
+ *   integrator = RK4       # EULER | VERLET | RK4 | DOPRI45, default VERLET
+ *   start      = Earth     # body to start on (top of its surface), default Earth
+ *   state      = x, y, vx, vy   # optional: start relative to that body's center instead
+ *   fuel_s     = 1200      # optional fuel (s of full-throttle burn)
+ *   snapshot   = quick.rsnap     # optional: fork from a saved snapshot instead of start/state;
+ *                                #   duration and schedule times then count from its sim time
+ *   at 0   throttle 1 angle 0    # schedule: from time t, set throttle (0..1) and/or
+ *   at 90  angle 45              #   attitude (degrees clockwise from +y)
+ *   at 240 throttle 0
+ * </pre>
+ * Schedule entries take effect at the first sub-step boundary at or after their time.
+ * Scenarios given together run in parallel.
+ */
+public final class Batch {
+    private Batch(){}
+
+    /** A parsed scenario file. */
+    public static final class Scenario {
+        public final String name;
+        public double duration = 0.0, sample = 1.0;
+        public Integrator integrator = Integrator.VERLET;
+        public String start = "Earth";
+        public double[] state;          // relative to the start body, or null for its surface
+        public double fuelSec = Double.NaN;
+        public Path snapshot;           // fork from this saved state, or null
+        public final List<double[]> schedule = new ArrayList<>(); // {t, throttle or NaN, angleDeg or NaN}
+
+        Scenario(String name){ this.name = name; }
+    }
+
+    public static void main(String[] args){
+        System.setProperty("java.awt.headless", "true");
+        Path outDir = null;
+        List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--catalog": Catalog.setCurrent(Catalog.load(Paths.get(args[++i]))); break;
+                    case "--out":     outDir = Paths.get(args[++i]); break;
+                    default:          files.add(Paths.get(args[i]));
+                }
+            }
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Batch: " + e.getMessage());
+            System.exit(1);
+        }
+        if (files.isEmpty()) {
+            System.err.println("usage: java rocket.Batch [--catalog file] [--out dir] scenario...");
+            System.exit(2);
+        }
+
+        final Path dir = outDir;
+        long failed = files.parallelStream().filter(f -> {
+            try {
+                Scenario sc = parse(f);
+                Path out = (dir != null ? dir : f.toAbsolutePath().getParent()).resolve(sc.name + ".csv");
+                long t0 = System.nanoTime();
+                run(sc, out);
+                double wall = (System.nanoTime() - t0) / 1e9;
+                System.err.printf(Locale.ROOT, "%s: %.0f sim s in %.2f s wall (%.0fx) -> %s%n",
+                        sc.name, sc.duration, wall, sc.duration / Math.max(wall, 1e-9), out);
+                return false;
+            } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+                System.err.println(f + ": " + e.getMessage());
+                return true;
+            }
+        }).count();
+        if (failed > 0) System.exit(1);
+    }
+
+    public static Scenario parse(Path f) throws IOException {
+        String base = f.getFileName().toString();
+        int dot = base.lastIndexOf('.');
+        Scenario sc = new Scenario(dot > 0 ? base.substring(0, dot) : base);
+        int ln = 0;
+        for (String raw : Files.readAllLines(f, StandardCharsets.UTF_8)) {
+            ln++;
+            int hash = raw.indexOf('#');
+            String line = (hash >= 0 ? raw.substring(0, hash) : raw).trim();
+            if (line.isEmpty()) continue;
+            try {
+                if (line.startsWith("at ") || line.startsWith("at\t")) {
+                    String[] tok = line.split("\\s+");
+                    double[] ev = {Double.parseDouble(tok[1]), Double.NaN, Double.NaN};
+                    for (int i = 2; i + 1 < tok.length; i += 2) {
+                        switch (tok[i]) {
+                            case "throttle": ev[1] = State.clamp(Double.parseDouble(tok[i + 1]), 0.0, 1.0); break;
+                            case "angle":    ev[2] = Double.parseDouble(tok[i + 1]); break;
+                            default: throw new IllegalArgumentException("unknown schedule key '" + tok[i] + "'");
+                        }
+                    }
+                    sc.schedule.add(ev);
+                    continue;
+                }
+                int eq = line.indexOf('=');
+                if (eq < 0) throw new IllegalArgumentException("expected key = value");
+                String key = line.substring(0, eq).trim(), val = line.substring(eq + 1).trim();
+                switch (key) {
+                    case "duration":   sc.duration = Double.parseDouble(val); break;
+                    case "sample":     sc.sample = Double.parseDouble(val); break;
+                    case "integrator": sc.integrator = Integrator.valueOf(val.toUpperCase(Locale.ROOT)); break;
+                    case "start":      sc.start = val; break;
+                    case "fuel_s":     sc.fuelSec = Double.parseDouble(val); break;
+                    case "snapshot":   sc.snapshot = f.toAbsolutePath().resolveSibling(val); break;
+                    case "state": {
+                        String[] p = val.split(",");
+                        if (p.length != 4) throw new IllegalArgumentException("state needs x, y, vx, vy");
+                        sc.state = new double[4];
+                        for (int i = 0; i < 4; i++) sc.state[i] = Double.parseDouble(p[i].trim());
+                        break;
+                    }
+                    default: throw new IllegalArgumentException("unknown key '" + key + "'");
+                }
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException(f + ":" + ln + ": " + e.getMessage(), e);
+            }
+        }
+        if (!(sc.duration > 0.0)) throw new IOException(f + ": duration must be > 0");
+        if (!(sc.sample > 0.0)) throw new IOException(f + ": sample must be > 0");
+        sc.schedule.sort((a, b) -> Double.compare(a[0], b[0]));
+        return sc;
+    }
+
+    /** Fly one scenario and write its trajectory; returns the final state. */
+    public static State run(Scenario sc, Path out) throws IOException {
+        State s = new State();
+        s.integrator = sc.integrator;
+        int bi = -1;
+        for (int i = 0; i < s.bodies.size(); i++) if (s.bodies.get(i).name.equalsIgnoreCase(sc.start)) { bi = i; break; }
+        if (bi < 0) throw new IllegalArgumentException("no body named '" + sc.start + "'");
+        State.Body b = s.bodies.get(bi);
+        if (sc.snapshot != null) {
+            Snapshot.load(sc.snapshot, s);
+            s.paused = false;
+            s.integrator = sc.integrator;  // the scenario decides, as for fresh starts
+        } else if (sc.state != null) {
+            s.rx = b.cx + sc.state[0]; s.ry = b.cy + sc.state[1];
+            s.vx = b.vcx + sc.state[2]; s.vy = b.vcy + sc.state[3];
+        } else {
+            s.rx = b.cx; s.ry = b.cy + Physics.surfaceRadiusAt(b, b.cx, b.cy + b.radius);
+            s.vx = b.vcx; s.vy = b.vcy;
+        }
+        if (!Double.isNaN(sc.fuelSec)) s.fuelSec = sc.fuelSec;
+        s.followRocket = false;
+
+        Engine eng = new Engine(s);
+        final double t0 = s.simTimeSec;     // scenario times are relative to the start (0 unless forked)
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write("t,x,y,vx,vy,angle_deg,throttle,fuel_s,ref_body,alt_m,v_rel,on_rails");
+            w.newLine();
+            int next = 0;
+            double tOut = 0.0;
+            while (true) {
+                while (next < sc.schedule.size() && t0 + sc.schedule.get(next)[0] <= s.simTimeSec) {
+                    double[] ev = sc.schedule.get(next++);
+                    if (!Double.isNaN(ev[1])) s.setThrottle(ev[1]);
+                    if (!Double.isNaN(ev[2])) s.ang = Math.toRadians(ev[2]);
+                    s.predEpoch++;
+                }
+                double el = s.simTimeSec - t0;
+                if (el >= tOut) { writeRow(w, s); tOut += sc.sample; }
+                if (el >= sc.duration) break;
+                double until = Math.min(tOut, sc.duration);
+                if (next < sc.schedule.size()) until = Math.min(until, sc.schedule.get(next)[0]);
+                eng.runFor(Math.max(until - el, 0.0));
+            }
+        }
+        return s;
+    }
+
+    private static void writeRow(BufferedWriter w, State s) throws IOException {
+        int ri = s.nearestBodyIdx(s.rx, s.ry);
+        State.Body ref = s.bodies.get(ri);
+        double alt = Math.hypot(s.rx - ref.cx, s.ry - ref.cy) - Physics.surfaceRadiusAt(ref, s.rx, s.ry);
+        double vRel = Math.hypot(s.vx - ref.vcx, s.vy - ref.vcy);
+        w.write(String.format(Locale.ROOT, "%.3f,%.3f,%.3f,%.6f,%.6f,%.4f,%.4f,%.3f,%s,%.3f,%.6f,%d",
+                s.simTimeSec, s.rx, s.ry, s.vx, s.vy, Math.toDegrees(s.ang), s.throttle, s.fuelSec,
+                ref.name, alt, vRel, s.onRails ? 1 : 0));
+        w.newLine();
+    }
+}
@@ -0,0 +1,43 @@
+// File: src/rocket/BodyStore.java
+package rocket;
+
+/**
+ * Structure-of-arrays view of the bodies for hot loops: one primitive array per field, indexed
+ * like State.bodies. Positions/velocities are filled by an Ephemeris; mu and radius are static.
+ * Names, colors and other rendering data stay on State.Body, out of the cache lines the
+ * gravity kernel walks.
+ *
+ * Whoever moves the bodies calls {@link #touch()}; large stores lazily rebuild their
+ * Barnes–Hut tree once per change.
+ */
+public final class BodyStore {
+    public final int n;
+    public final double[] x, y, vx, vy, mu, radius;
+
+    private long version = 0, treeVersion = -1;
+    private BarnesHut tree;
+
+    public BodyStore(int n){
+        this.n = n;
+        x = new double[n]; y = new double[n]; vx = new double[n]; vy = new double[n];
+        mu = new double[n]; radius = new double[n];
+    }
+
+    /** Mark positions as changed. */
+    public void touch(){ version++; }
+
+    /** Barnes–Hut tree for the current positions (built on first use after a change). */
+    public BarnesHut tree(){
+        if (tree == null) tree = new BarnesHut(Config.BH_THETA);
+        if (treeVersion != version) { tree.build(this); treeVersion = version; }
+        return tree;
+    }
+
+    /** Store seeded with the static per-body constants of a catalog. */
+    public static BodyStore fromCatalog(Catalog c){
+        BodyStore b = new BodyStore(c.n);
+        System.arraycopy(c.mu, 0, b.mu, 0, b.n);
+        System.arraycopy(c.radius, 0, b.radius, 0, b.n);
+        return b;
+    }
+}
@@ -0,0 +1,342 @@
+// File: src/rocket/Catalog.java
+package rocket;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The body catalog: static per-body data (physical constants, colors, on-rails orbit) in
+ * parallel primitive arrays, indexed like State.bodies. The built-in catalog mirrors the
+ * Config arrays; larger systems come from an external file:
+ *
+ *  - CSV (".csv"): one body per row, header required, '#' comments; see {@link #writeCsv}.
+ *  - Binary (".rcat"): fixed header then one column per field, memory-mapped and bulk-copied
+ *    into the arrays, so 10^5 bodies load in milliseconds.
+ *
+ * Parents are referenced by index (binary) or name (CSV) and may appear in any order;
+ * Ephemeris evaluates parents first. Per-body flags (FLAG_*) come from an optional CSV "flags"
+ * column or the binary flags column (version 2). Ocean and sky colors (see DrawBodies) likewise
+ * come from optional CSV "ocean" and "sky" columns or binary version 3. The shipped catalogs
+ * carry all of them; only files without the columns (older or third-party ones) fall back to
+ * treating a body named Earth as smooth with Earth's colors, which is what the name checks
+ * these replaced did. {@code java rocket.Catalog in.csv out.rcat} converts, and rewriting a file
+ * that way adds the columns.
+ */
+public final class Catalog {
+    private static final int MAGIC = 0x54414352;   // "RCAT" little-endian
+    private static final int VERSION = 3;
+
+    /** Flag: the surface is a smooth sphere (no terrain). */
+    public static final int FLAG_SMOOTH = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_BODIES = 1 << 24;       // sanity bound on a file's body count
+
+    private static volatile Catalog current;
+
+    public final int n;
+    public final String[] name;
+    public final int[] parent, orbitMode, colorArgb, atmInnerArgb, atmOuterArgb, flags, oceanArgb, skyArgb;
+    public final double[] mu, radius, terrainAmp, terrainL, atmThick, cx, cy, orbitA, orbitB, omega, phase;
+
+    public Catalog(int n){
+        this.n = n;
+        name = new String[n];
+        parent = new int[n]; orbitMode = new int[n]; colorArgb = new int[n]; atmInnerArgb = new int[n]; atmOuterArgb = new int[n]; flags = new int[n];
+        oceanArgb = new int[n]; skyArgb = new int[n];
+        mu = new double[n]; radius = new double[n]; terrainAmp = new double[n]; terrainL = new double[n]; atmThick = new double[n];
+        cx = new double[n]; cy = new double[n]; orbitA = new double[n]; orbitB = new double[n]; omega = new double[n]; phase = new double[n];
+    }
+
+    /** Catalog every new State/Ephemeris is built from (the built-in one unless replaced at startup). */
+    public static Catalog current(){
+        Catalog c = current;
+        if (c == null) { synchronized (Catalog.class) { if (current == null) current = builtin(); c = current; } }
+        return c;
+    }
+
+    public static void setCurrent(Catalog c){ current = c; }
+
+    /** The solar system from the Config arrays. */
+    public static Catalog builtin(){
+        Catalog c = new Catalog(Config.BODY_COUNT);
+        for (int i = 0; i < c.n; i++) {
+            c.name[i] = Config.BODY_NAME[i];
+            c.parent[i] = Config.ORBIT_CENTER_IDX[i]; c.orbitMode[i] = Config.ORBIT_MODE[i];
+            c.colorArgb[i] = Config.BODY_COLOR_ARGB[i];
+            c.atmInnerArgb[i] = Config.BODY_ATM_INNER_ARGB[i]; c.atmOuterArgb[i] = Config.BODY_ATM_OUTER_ARGB[i];
+            c.mu[i] = Config.BODY_MU[i]; c.radius[i] = Config.BODY_RADIUS[i];
+            c.terrainAmp[i] = Config.BODY_TERRAIN_AMP[i]; c.terrainL[i] = Config.BODY_TERRAIN_L[i];
+            c.atmThick[i] = Config.BODY_ATM_THICK[i];
+            c.flags[i] = Config.BODY_FLAGS[i];
+            c.oceanArgb[i] = Config.BODY_OCEAN_ARGB[i]; c.skyArgb[i] = Config.BODY_SKY_ARGB[i];
+            c.cx[i] = Config.BODY_CX[i]; c.cy[i] = Config.BODY_CY[i];
+            c.orbitA[i] = Config.ORBIT_A_M[i]; c.orbitB[i] = Config.ORBIT_B_M[i];
+            c.omega[i] = Config.ORBIT_OMEGA_RAD_PER_S[i]; c.phase[i] = Config.ORBIT_PHASE_RAD[i];
+        }
+        return c;
+    }
+
+    /** Index of the first body with this name (case-insensitive), or -1. */
+    public int indexOf(String bodyName){
+        for (int i = 0; i < n; i++) if (name[i].equalsIgnoreCase(bodyName)) return i;
+        return -1;
+    }
+
+    /** True if body i moves on rails around a parent. */
+    public boolean onRails(int i){ return orbitMode[i] != 0 && parent[i] >= 0; }
+
+    // Derived lookups, built on first use (the arrays above are filled after construction)
+    private volatile double[] soi;
+    private volatile int[][] children;
+    private volatile int[] roots;
+    private volatile Terrain[] terrain;
+
+    /** Sphere-of-influence radius of body i (Laplace); +Inf for bodies not on rails. */
+    public double soi(int i){
+        double[] s = soi;
+        if (s == null) {
+            s = new double[n];
+            for (int k = 0; k < n; k++) {
+                s[k] = onRails(k)
+                     ? Math.max(orbitA[k], orbitB[k]) * Math.pow(mu[k] / mu[parent[k]], 0.4)
+                     : Double.POSITIVE_INFINITY;
+            }
+            soi = s;
+        }
+        return s[i];
+    }
+
+    /** Terrain of body i, shared by everything built from this catalog (tables fill on first use). */
+    public Terrain terrain(int i){
+        Terrain[] t = terrain;
+        if (t == null) {
+            t = new Terrain[n];
+            for (int k = 0; k < n; k++) t[k] = Terrain.of(this, k);
+            terrain = t;
+        }
+        return t[i];
+    }
+
+    /** Bodies on rails around body i. */
+    public int[] children(int i){
+        if (children == null) buildTree();
+        return children[i];
+    }
+
+    /** Bodies that are not on rails around anything (the Sun, free-standing systems). */
+    public int[] roots(){
+        if (roots == null) buildTree();
+        return roots;
+    }
+
+    private synchronized void buildTree(){
+        if (children != null) return;
+        int[] count = new int[n]; int nRoots = 0;
+        for (int i = 0; i < n; i++) { if (onRails(i)) count[parent[i]]++; else nRoots++; }
+        int[][] ch = new int[n][];
+        for (int i = 0; i < n; i++) ch[i] = new int[count[i]];
+        int[] r = new int[nRoots];
+        Arrays.fill(count, 0); nRoots = 0;
+        for (int i = 0; i < n; i++) { if (onRails(i)) ch[parent[i]][count[parent[i]]++] = i; else r[nRoots++] = i; }
+        roots = r;
+        children = ch;
+    }
+
+    // ---------------------------------------------------------------- loading
+
+    /** Load by extension: ".rcat" binary, anything else CSV. */
+    public static Catalog load(Path p) throws IOException {
+        return p.getFileName().toString().toLowerCase().endsWith(".rcat") ? loadBinary(p) : loadCsv(p);
+    }
+
+    private static final String[] CSV_COLUMNS = {
+        "name", "parent", "mu", "radius", "terrain_amp", "terrain_l", "atm_thick",
+        "color", "atm_inner", "atm_outer", "x", "y", "orbit_a", "orbit_b", "period_s", "phase_rad"
+    };
+
+    public static Catalog loadCsv(Path p) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        Map<String, Integer> col = new HashMap<>();
+        try (BufferedReader r = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] f = line.split(",", -1);
+                for (int i = 0; i < f.length; i++) f[i] = f[i].trim();
+                if (col.isEmpty()) { for (int i = 0; i < f.length; i++) col.put(f[i].toLowerCase(), i); continue; }
+                rows.add(f);
+            }
+        }
+        for (String c : CSV_COLUMNS) if (!col.containsKey(c)) throw new IOException(p + ": missing column '" + c + "'");
+
+        Catalog c = new Catalog(rows.size());
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < c.n; i++) {
+            String[] f = rows.get(i);
+            c.name[i] = f[col.get("name")];
+            byName.putIfAbsent(c.name[i].toLowerCase(), i);
+        }
+        for (int i = 0; i < c.n; i++) {
+            String[] f = rows.get(i);
+            try {
+                String par = f[col.get("parent")];
+                if (par.isEmpty()) { c.parent[i] = -1; c.orbitMode[i] = 0; }
+                else {
+                    Integer pi = byName.get(par.toLowerCase());
+                    if (pi == null) throw new IOException(p + ": body '" + c.name[i] + "' has unknown parent '" + par + "'");
+                    c.parent[i] = pi; c.orbitMode[i] = 1;
+                }
+                c.mu[i] = num(f, col, "mu"); c.radius[i] = num(f, col, "radius");
+                c.terrainAmp[i] = num(f, col, "terrain_amp"); c.terrainL[i] = num(f, col, "terrain_l");
+                c.atmThick[i] = num(f, col, "atm_thick");
+                c.colorArgb[i] = argb(f[col.get("color")]);
+                c.atmInnerArgb[i] = argb(f[col.get("atm_inner")]); c.atmOuterArgb[i] = argb(f[col.get("atm_outer")]);
+                c.cx[i] = num(f, col, "x"); c.cy[i] = num(f, col, "y");
+                c.orbitA[i] = num(f, col, "orbit_a"); c.orbitB[i] = num(f, col, "orbit_b");
+                double period = num(f, col, "period_s");
+                c.omega[i] = (period > 0.0) ? 2.0 * Math.PI / period : 0.0;
+                c.phase[i] = num(f, col, "phase_rad");
+                c.flags[i] = col.containsKey("flags") ? (int) num(f, col, "flags") : legacyFlags(c.name[i]);
+                if (col.containsKey("ocean") && col.containsKey("sky")) {
+                    c.oceanArgb[i] = argb(f[col.get("ocean")]); c.skyArgb[i] = argb(f[col.get("sky")]);
+                } else legacyColors(c, i);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException(p + ": bad row for body '" + c.name[i] + "': " + e.getMessage(), e);
+            }
+        }
+        return c;
+    }
+
+    /** Flags for files without the flags column (older or third-party ones). */
+    private static int legacyFlags(String name){ return "Earth".equalsIgnoreCase(name) ? FLAG_SMOOTH : 0; }
+
+    /** Ocean and sky colors for files without those columns (Earth's, as drawn before). */
+    private static void legacyColors(Catalog c, int i){
+        boolean earth = "Earth".equalsIgnoreCase(c.name[i]);
+        c.oceanArgb[i] = earth ? Config.COL_EARTH_OCEAN_ARGB : Config.COL_NONE_ARGB;
+        c.skyArgb[i] = earth ? Config.COL_EARTH_SKY_ARGB : Config.COL_NONE_ARGB;
+    }
+
+    private static double num(String[] f, Map<String, Integer> col, String key){
+        String v = f[col.get(key)];
+        return v.isEmpty() ? 0.0 : Double.parseDouble(v);
+    }
+
+    private static int argb(String v){
+        if (v.isEmpty()) return 0;
+        String h = v.startsWith("#") ? v.substring(1) : (v.startsWith("0x") || v.startsWith("0X")) ? v.substring(2) : v;
+        long x = Long.parseLong(h, 16);
+        return (h.length() <= 6) ? (int) (0xFF000000L | x) : (int) x;
+    }
+
+    /** Memory-map a ".rcat" file and bulk-copy its columns. */
+    public static Catalog loadBinary(Path p) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException(p + ": catalog file too large");
+            MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            ByteBuffer b = mb.order(ByteOrder.LITTLE_ENDIAN);
+            if (b.remaining() < HEADER_BYTES || b.getInt() != MAGIC) throw new IOException(p + ": not a body catalog");
+            int ver = b.getInt();
+            if (ver < 1 || ver > VERSION) throw new IOException(p + ": unsupported catalog version " + ver);
+            int n = b.getInt(); b.getInt(); // reserved
+            // Check the body count against the file before allocating anything for it
+            int intCols = (ver == 1) ? INT_COLUMNS - 3 : (ver == 2) ? INT_COLUMNS - 2 : INT_COLUMNS;   // v1: no flags, v2: no ocean/sky
+            long need = (long) n * (8L * DOUBLE_COLUMNS + 4L * intCols) + 4L * (n + 1L);
+            if (n < 0 || n > MAX_BODIES || need > b.remaining()) throw new IOException(p + ": bad body count " + n);
+            Catalog c = new Catalog(n);
+            int[][] ints = Arrays.copyOf(c.intColumns(), intCols);
+            for (double[] a : c.doubleColumns()) { b.asDoubleBuffer().get(a); b.position(b.position() + 8 * n); }
+            for (int[] a : ints)                 { b.asIntBuffer().get(a);    b.position(b.position() + 4 * n); }
+            int[] off = new int[n + 1];
+            b.asIntBuffer().get(off); b.position(b.position() + 4 * (n + 1));
+            if (off[0] != 0 || off[n] > b.remaining()) throw new IOException(p + ": bad name table");
+            for (int i = 0; i < n; i++) if (off[i + 1] < off[i]) throw new IOException(p + ": bad name table");
+            byte[] names = new byte[off[n]];
+            b.get(names);
+            for (int i = 0; i < n; i++) c.name[i] = new String(names, off[i], off[i + 1] - off[i], StandardCharsets.UTF_8);
+            if (ver == 1) for (int i = 0; i < n; i++) c.flags[i] = legacyFlags(c.name[i]);
+            if (ver < 3) for (int i = 0; i < n; i++) legacyColors(c, i);
+            for (int i = 0; i < n; i++) if (c.parent[i] < -1 || c.parent[i] >= n) throw new IOException(p + ": body " + i + " has parent index " + c.parent[i]);
+            return c;
+        }
+    }
+
+    // ---------------------------------------------------------------- writing
+
+    public void writeBinary(Path p) throws IOException {
+        byte[][] nm = new byte[n][];
+        long nameBytes = 0;
+        for (int i = 0; i < n; i++) { nm[i] = name[i].getBytes(StandardCharsets.UTF_8); nameBytes += nm[i].length; }
+        long size = HEADER_BYTES + 8L * n * DOUBLE_COLUMNS + 4L * n * INT_COLUMNS + 4L * (n + 1) + nameBytes;
+        if (size > Integer.MAX_VALUE) throw new IOException(p + ": catalog too large for the binary format (" + size + " bytes)");
+        ByteBuffer b = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0);
+        for (double[] a : doubleColumns()) { b.asDoubleBuffer().put(a); b.position(b.position() + 8 * n); }
+        for (int[] a : intColumns())       { b.asIntBuffer().put(a);    b.position(b.position() + 4 * n); }
+        int acc = 0;
+        b.putInt(0);
+        for (int i = 0; i < n; i++) { acc += nm[i].length; b.putInt(acc); }
+        for (int i = 0; i < n; i++) b.put(nm[i]);
+        b.flip();
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (b.hasRemaining()) ch.write(b);
+        }
+    }
+
+    public void writeCsv(Path p) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(p, StandardCharsets.UTF_8)) {
+            w.write(String.join(",", CSV_COLUMNS) + ",flags,ocean,sky"); w.newLine();
+            for (int i = 0; i < n; i++) {
+                double period = (omega[i] != 0.0) ? 2.0 * Math.PI / omega[i] : 0.0;
+                w.write(String.join(",",
+                    name[i], onRails(i) ? name[parent[i]] : "",
+                    Double.toString(mu[i]), Double.toString(radius[i]),
+                    Double.toString(terrainAmp[i]), Double.toString(terrainL[i]), Double.toString(atmThick[i]),
+                    hex(colorArgb[i]), hex(atmInnerArgb[i]), hex(atmOuterArgb[i]),
+                    Double.toString(cx[i]), Double.toString(cy[i]),
+                    Double.toString(orbitA[i]), Double.toString(orbitB[i]),
+                    Double.toString(period), Double.toString(phase[i]), Integer.toString(flags[i]),
+                    hex(oceanArgb[i]), hex(skyArgb[i])));
+                w.newLine();
+            }
+        }
+    }
+
+    private static String hex(int argb){ return String.format("#%08X", argb); }
+
+    // Column counts of the binary format; must match doubleColumns() and intColumns()
+    private static final int DOUBLE_COLUMNS = 11, INT_COLUMNS = 8;
+
+    private double[][] doubleColumns(){
+        return new double[][]{ mu, radius, terrainAmp, terrainL, atmThick, cx, cy, orbitA, orbitB, omega, phase };
+    }
+
+    private int[][] intColumns(){
+        return new int[][]{ parent, orbitMode, colorArgb, atmInnerArgb, atmOuterArgb, flags, oceanArgb, skyArgb };
+    }
+
+    /** Convert between formats: {@code java rocket.Catalog in.(csv|rcat) out.(csv|rcat)}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) { System.err.println("usage: java rocket.Catalog <in.csv|in.rcat> <out.csv|out.rcat>"); System.exit(2); }
+        Catalog c = load(Paths.get(args[0]));
+        Path out = Paths.get(args[1]);
+        if (out.getFileName().toString().toLowerCase().endsWith(".rcat")) c.writeBinary(out); else c.writeCsv(out);
+        System.out.println("wrote " + c.n + " bodies to " + out);
+    }
+}
@@ -4,6 +4,18 @@ package rocket;
 public class Config {
   // Window/loop
   public static final int W=1200,H=800,FPS=60;
+  // Rendering: "passive" (repaint() on the EDT) or "active" (render thread + accelerated back buffer,
+  // see RenderLoop); -Drocket.render overrides. Reported refresh rates below the minimum are ignored
+  public static final String RENDER_MODE="passive";
+  public static final int RENDER_MIN_HZ=24;
+  // Cached render layers (stars, orbits, labels): margin kept around the viewport for pans, as a
+  // fraction of its larger side, and how far (px) anchors may drift apart before a re-render
+  public static final double LAYER_PAD_FRAC=0.25, LAYER_TOL_PX=0.5;
+  // Simulation thread: longest real-time gap fed to one tick (s; the physics sub-step is the
+  // integrator's liveDt), tick rate of the loop (Hz), and a per-tick sub-step cap so a stalled
+  // machine drops backlog instead of spiralling.
+  public static final double SIM_MAX_FRAME_SEC=0.25;
+  public static final int SIM_TICK_HZ=240, SIM_MAX_SUBSTEPS=4000;
 
   // Rocket/physics
   public static final double BODY_H=50.0,BODY_W=5.0,CONE_H=10.0,FIN_LEN=6.0,FIN_DROP=6.0,MAX_THRUST_G=4.0,G0=9.80665;
@@ -17,6 +29,57 @@ public class Config {
   // Prediction
   public static final double BASE_PRED_DT=0.5;
   public static final int PRED_POINTS_MAX=2000,PRED_HORIZON_MAX=18000;
+  // Patched-conic prediction: horizon cap (s, ~12 years) and samples per bound orbit
+  public static final int PRED_HORIZON_CONIC_MAX=400_000_000, CONIC_SAMPLES_PER_ORBIT=128;
+
+  // Maneuver nodes: predictor sub-step inside burns (s), propagator checkpoint spacing (samples),
+  // and the editing steps (node lead time s, m/s per key, s per key; Shift ×10)
+  public static final double BURN_PRED_DT=1.0, NODE_LEAD_SEC=60.0, NODE_DV_STEP=1.0, NODE_TIME_STEP=10.0;
+  public static final int PRED_CHECKPOINT_EVERY=32;
+
+  // Events (impact, atmosphere, SOI, apsides): samples per step when the path nears a surface,
+  // and the time the crossing is root-found to (s)
+  public static final int EVENT_SCAN_SAMPLES=8;
+  public static final double EVENT_TIME_TOL=1e-6;
+
+  // Integrators: Dormand–Prince per-step absolute tolerances (m, m/s) and largest internal step (s)
+  public static final double DOPRI_ATOL_POS=1.0, DOPRI_ATOL_VEL=1e-3, DOPRI_MAX_H=3600.0;
+
+  // Gravity: Barnes–Hut opening angle, and the body count below which the direct sum is used
+  public static final double BH_THETA=0.5;
+  public static final int BH_MIN_BODIES=64;
+
+  // Fleet: vessels per parallel chunk, and the debris cloud released with Shift+V (count, m/s spread)
+  public static final int FLEET_CHUNK=64, FLEET_DEBRIS_COUNT=500;
+  public static final double FLEET_DEBRIS_SPREAD_MPS=20.0;
+
+  // Flight recorder: on or off (-Drocket.record overrides), log directory (-Drocket.flights overrides),
+  // flights kept there (older logs are deleted), records per keyframe and per mapped chunk,
+  // and the replay seek step (s; Shift ×10)
+  public static final boolean REC_ENABLED=false;
+  public static final String REC_DIR="flights";
+  public static final int REC_KEEP_FLIGHTS=20;
+  public static final int REC_KEYFRAME_EVERY=256, REC_CHUNK_RECORDS=1<<17;
+  public static final double REPLAY_SEEK_SEC=60.0;
+  // Quick-save slot (F5 save, F9 load); -Drocket.quicksave overrides
+  public static final String QUICKSAVE_FILE="saves/quick.rsnap";
+
+  // Dispersion (Monte Carlo): runs, 1-sigma errors (burn delta-v fraction, burn pointing rad, start velocity m/s per axis),
+  // seed, trajectories per parallel chunk and stored points per trajectory
+  public static final int DISP_COUNT=1000, DISP_CHUNK=16, DISP_PATH_POINTS=64;
+  public static final double DISP_SIGMA_MAG=0.005, DISP_SIGMA_ANG_RAD=0.0087, DISP_SIGMA_V=0.5;
+  public static final long DISP_SEED=1L;
+
+  // Porkchop transfer grids: departure × arrival steps, flight time range (× Hohmann time),
+  // cap on the departure window (s; normally one synodic period) and transfer arc samples
+  public static final int PORK_DEP_STEPS=160, PORK_ARR_STEPS=160, PORK_ARC_SAMPLES=128;
+  public static final double PORK_TOF_MIN=0.4, PORK_TOF_MAX=2.0, PORK_DEP_SPAN_MAX=20*365.25*86400.0;
+
+  // Terrain noise: octaves (first wavelength BODY_TERRAIN_L × BASE_MULT, halving; height × GAIN each),
+  // octaves in the coarse whole-body table, samples per wavelength, fine tile size/cache per body
+  public static final int TERRAIN_OCTAVES=8, TERRAIN_COARSE_OCTAVES=4, TERRAIN_SAMPLES_PER_WAVE=16, TERRAIN_TABLE_MAX=1<<22;
+  public static final double TERRAIN_BASE_MULT=8.0, TERRAIN_GAIN=0.5;
+  public static final int TERRAIN_TILE_SAMPLES=1024, TERRAIN_TILE_CACHE=64;
 
   // Camera/zoom
   public static final double MIN_PX_PER_M=1e-11, MAX_PX_PER_M=800.0;
@@ -25,6 +88,12 @@ public class Config {
   public static final double FILL_MAX_RADIUS_PX=8000.0,ARC_SPAN_MAX_RAD=1.3;
   public static final int ARC_SAMPLES=128,ARC_SEGMENT_PX=220,ARC_MAX_SEGMENTS=60,ATM_BANDS=40;
 
+  // Orbit ellipses: max chord error (px), unit-circle table size (power of two), segments per
+  // orbit (min for the whole ellipse, max for any arc), rotation steps between exact re-seeds,
+  // and a cap on the curvature radius used for the step, as a multiple of the semi-major axis
+  public static final double ORBIT_TOL_PX=0.25, ORBIT_MAX_ECC_RATIO=64.0;
+  public static final int ORBIT_TABLE=4096, ORBIT_MIN_SEG=64, ORBIT_MAX_SEG=8192, ORBIT_RESEED=256;
+
   // Starfield
   public static final int STAR_CELL_PX=28; public static final double STAR_DENSITY=0.80; public static final long STAR_SEED=42L;
 
@@ -32,12 +101,13 @@ public class Config {
   public static final int COL_EARTH_BLUE_ARGB=0xFF286EC8, COL_EARTH_EDGE_ARGB=0xFF78AAE6, COL_STAR_ARGB=0xFFF0F0FF, COL_PRED_ARGB=0x46B4C8FF;
   public static final int COL_ATM_INNER_ARGB=0x965AA0E6, COL_ATM_OUTER_ARGB=0x005AA0E6, COL_SUN_GLOW_INNER_ARGB=0xA0FFAA28, COL_SUN_GLOW_OUTER_ARGB=0x00FFAA28;
   public static final int COL_NONE_ARGB=0x00000000;
+  public static final int COL_EARTH_OCEAN_ARGB=0xFF2A74C5, COL_EARTH_SKY_ARGB=0xFF87CEEB;
 
   // HUD basics
   public static final String HUD_FONT_FAMILY="Consolas", LABEL_FONT_FAMILY="Consolas";
   public static final int HUD_FONT_SIZE=16, LABEL_FONT_SIZE=14;
   public static final int HUD_MARGIN=10;
-  public static final String CONTROLS_LEGEND="F cam mode  |  -/= time×  |  click planet to follow  |  wheel zoom, drag pan";
+  public static final String CONTROLS_LEGEND="F cam mode  |  I integrator  |  P prediction  |  V release (Shift: debris)  |  K replay, ,/. seek  |  M dispersion  |  L transfer target  |  N node (B select, PgUp/PgDn prograde, Home/End radial, ;/' time, Del)  |  F5/F9 quick save/load  |  -/= time×  |  click planet to follow  |  wheel zoom, drag pan";
 
   // -------- Bodies (Sun-centric). Order: Sun, Mercury, Venus, Earth, Moon, Mars, Jupiter, Saturn, Uranus, Neptune
   public static final int BODY_COUNT=10;
@@ -52,6 +122,8 @@ public class Config {
   };
   public static final double[] BODY_TERRAIN_AMP={0.0,800,500,1000,800,1200,0,0,0,0};
   public static final double[] BODY_TERRAIN_L  ={5000,5000,5000,5000,5000,8000,5000,5000,5000,5000};
+  // Catalog.FLAG_* bits (1 = smooth sphere: Earth keeps its amplitude for the data but has no bumps)
+  public static final int[] BODY_FLAGS={0,0,0,1,0,0,0,0,0,0};
   public static final double[] BODY_ATM_THICK={13_115_806.0,0,0,120_000.0,0,0,0,0,0,0};
   public static final int[] BODY_ATM_INNER_ARGB={
     COL_SUN_GLOW_INNER_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_ATM_INNER_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB
@@ -62,6 +134,13 @@ public class Config {
   public static final int[] BODY_COLOR_ARGB={
     0xFFFFAA28,0xFFB5B5B5,0xFFEED28E,0xFF69B36B,0xFFBFBFBF,0xFFB04A2E,0xFFD7A26D,0xFFE6C27A,0xFF78D3E1,0xFF2F5DDE
   };
+  // Full disc: ocean under BODY_COLOR landmasses; sky: opaque glow at the limb and horizon (COL_NONE: plain disc, atmosphere gradient)
+  public static final int[] BODY_OCEAN_ARGB={
+    COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_EARTH_OCEAN_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB
+  };
+  public static final int[] BODY_SKY_ARGB={
+    COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_EARTH_SKY_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB, COL_NONE_ARGB
+  };
 
   // ---------- ORBITS (on-rails) ----------
   public static final int[] ORBIT_MODE={0,1,1,1,1,1,1,1,1,1};
@@ -84,7 +163,13 @@ public class Config {
 
   // --- HUD buttons + time limits ---
   public static final int HUD_BTN_SIZE=22, HUD_BTN_GAP=8;
-  public static final double TIME_SCALE_MIN=0.25, TIME_SCALE_MAX=5000.0;
+  public static final double TIME_SCALE_MIN=0.25, TIME_SCALE_MAX=1e7;
+  // Warp is clamped to this while thrusting; beyond it only on-rails coasting keeps up
+  public static final double TIME_SCALE_POWERED_MAX=5000.0;
+
+  // --- On-rails coasting: clearance above atmosphere/terrain (m) and Kepler chunks per orbit ---
+  public static final double RAILS_MARGIN_M=1000.0;
+  public static final int RAILS_CHUNKS_PER_ORBIT=64;
 
   // --- label culling & tiny-body rule ---
   public static final double LABEL_HIDE_BELOW_RPX=10.0;   // don't label if body radius on screen < 10 px
@@ -92,6 +177,6 @@ public class Config {
 
   // --- Time-scale presets (for HUD pushbuttons) ---
   public static final double[] TIME_PRESETS = new double[]{
-    1.0, 5.0, 25.0, 100.0, 500.0, 1000.0, 5000.0
+    1.0, 5.0, 25.0, 100.0, 500.0, 1000.0, 5000.0, 1e5, 1e6, 1e7
   };
 }
@@ -0,0 +1,207 @@
+// File: src/rocket/Dispersion.java
+package rocket;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo dispersion of the predicted trajectory: every planned burn (maneuver node) is
+ * flown the way an imperfect engine would fly it (delta-v magnitude error for throttle, pointing
+ * error for attitude, drawn per node), the starting velocity gets isotropic navigation noise, and
+ * every sample is predicted with the same Propagator, mode and horizon as the drawn path. With no
+ * nodes only the noise applies; a live manual burn is not predicted (see PredictionCache), so it
+ * has nothing to perturb either.
+ *
+ * Trajectories are split into chunks of Config.DISP_CHUNK and run in parallel on the common
+ * fork/join pool; each chunk has its own Propagator and State copy, like Fleet's workers. Sample
+ * i always draws from its own stream seeded from (seed, i), so a result does not depend on scheduling. Sample 0 is
+ * the unperturbed nominal.
+ *
+ * {@code java rocket.Dispersion [--snapshot file.rsnap] [--n 1000] [--seed 1]} prints the
+ * statistics and throughput for a saved state (default: a 400 km circular Earth orbit).
+ */
+public final class Dispersion {
+    private Dispersion(){}
+
+    /** Error model (1-sigma) and sample count. */
+    public static final class Params {
+        public int count = Config.DISP_COUNT;
+        /** Burn delta-v error as a fraction of each node's delta-v (throttle error). */
+        public double sigmaMag = Config.DISP_SIGMA_MAG;
+        /** Pointing error of each burn (rad; attitude error). */
+        public double sigmaAng = Config.DISP_SIGMA_ANG_RAD;
+        /** Isotropic noise on the starting velocity (m/s per axis). */
+        public double sigmaV = Config.DISP_SIGMA_V;
+        public long seed = Config.DISP_SEED;
+    }
+
+    /** Per-trajectory outcomes plus a decimated path of each, relative to body refIdx. */
+    public static final class Result {
+        /** State.predEpoch the run started from; the result is stale once it changes. */
+        public final long epoch;
+        /** Sim time the trajectories start at. */
+        public final double startT;
+        public final int refIdx, n, pathPoints;
+        /** Trajectory i's path is pathX/pathY[i * pathPoints .. + pathLen[i]). */
+        public final double[] pathX, pathY;
+        public final int[] pathLen;
+        public final boolean[] impact;
+        /** Sim time of impact (NaN if none), and periapsis altitude above refIdx's mean radius where the trajectory ends. */
+        public final double[] impactT, periAlt;
+        public double wallSec;
+
+        Result(long epoch, double startT, int refIdx, int n, int pathPoints){
+            this.epoch = epoch; this.startT = startT; this.refIdx = refIdx; this.n = n; this.pathPoints = pathPoints;
+            pathX = new double[n * pathPoints]; pathY = new double[n * pathPoints]; pathLen = new int[n];
+            impact = new boolean[n]; impactT = new double[n]; periAlt = new double[n];
+        }
+
+        /** Trajectories per wall-clock second. */
+        public double throughput(){ return n / Math.max(wallSec, 1e-9); }
+
+        public int impacts(){ int k = 0; for (boolean b : impact) if (b) k++; return k; }
+
+        /** Periapsis altitudes, sorted. */
+        public double[] sortedPeriAlt(){ double[] a = periAlt.clone(); Arrays.sort(a); return a; }
+
+        /** Impact times of the trajectories that hit, sorted. */
+        public double[] sortedImpactT(){
+            double[] a = new double[impacts()]; int k = 0;
+            for (int i = 0; i < n; i++) if (impact[i]) a[k++] = impactT[i];
+            Arrays.sort(a);
+            return a;
+        }
+
+        /** One-line report: impact probability and times, periapsis distribution, throughput. */
+        public String summary(){
+            if (summary == null) summary = format();
+            return summary;
+        }
+
+        private String summary;
+
+        private String format(){
+            double[] pe = sortedPeriAlt(), it = sortedImpactT();
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                    "%d runs, %.0f traj/s | impact %.1f%%", n, throughput(), 100.0 * it.length / Math.max(1, n)));
+            if (it.length > 0) sb.append(String.format(Locale.ROOT, " at t+%.0f s [p5 %.0f, p95 %.0f]",
+                    mean(it) - startT, pct(it, 0.05) - startT, pct(it, 0.95) - startT));
+            sb.append(String.format(Locale.ROOT, " | periapsis %.1f km (sd %.1f) [p5 %.1f, p50 %.1f, p95 %.1f]",
+                    mean(pe) / 1e3, std(pe) / 1e3, pct(pe, 0.05) / 1e3, pct(pe, 0.5) / 1e3, pct(pe, 0.95) / 1e3));
+            return sb.toString();
+        }
+    }
+
+    /** Run the dispersion from the rocket's current state in s (s is only read). */
+    public static Result run(State s, Params p){
+        final double dt = Physics.predDt(s.predHorizonSec, Config.BASE_PRED_DT);
+        final int steps = Math.min(Config.PRED_POINTS_MAX, Math.max(1, (int) Math.ceil(s.predHorizonSec / dt)));
+        final int pts = Config.DISP_PATH_POINTS, stride = Math.max(1, (steps + pts - 2) / (pts - 1));
+        final int refIdx = s.nearestBodyIdx(s.rx, s.ry);
+        final State.Body ref = s.bodies.get(refIdx);
+        final Result r = new Result(s.predEpoch, s.simTimeSec, refIdx, Math.max(1, p.count), pts);
+
+        final int chunk = Config.DISP_CHUNK, chunks = (r.n + chunk - 1) / chunk;
+        long t0 = System.nanoTime();
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            State w = s.snapshot();
+            Physics.Propagator prop = new Physics.Propagator();
+            prop.eventMask = Events.Type.SURFACE.bit;     // only impact cuts a sample short; the rest stay on the grid
+            final double[] end = new double[4], rc = new double[4];
+            for (int i = c * chunk, last = Math.min(r.n, (c + 1) * chunk); i < last; i++) {
+                perturb(s, p, i, w);
+                fly(w, prop, dt, steps, stride, r, i);
+                // Osculating periapsis about the reference body after the (perturbed) burns
+                prop.worldState(end);
+                prop.eph.stateAt(refIdx, prop.T, rc);
+                r.periAlt[i] = Kepler.periapsis(ref.mu, end[0] - rc[0], end[1] - rc[1], end[2] - rc[2], end[3] - rc[3]) - ref.radius;
+            }
+        });
+        r.wallSec = (System.nanoTime() - t0) / 1e9;
+        return r;
+    }
+
+    /** Sample i's starting velocity and burns into w (sample 0 is the nominal). */
+    private static void perturb(State s, Params p, int i, State w){
+        w.rx = s.rx; w.ry = s.ry; w.vx = s.vx; w.vy = s.vy;
+        w.nodes = s.nodes;
+        if (i == 0) return;
+        Random rnd = new Random(p.seed * 0x9E3779B97F4A7C15L + i);
+        w.vx += p.sigmaV * rnd.nextGaussian(); w.vy += p.sigmaV * rnd.nextGaussian();
+        if (s.nodes.isEmpty()) return;
+        // Each burn's (prograde, radial) delta-v scaled by the throttle error and turned by the pointing error
+        List<ManeuverNode> nodes = new ArrayList<>(s.nodes.size());
+        for (ManeuverNode m : s.nodes) {
+            double k = 1.0 + p.sigmaMag * rnd.nextGaussian(), a = p.sigmaAng * rnd.nextGaussian();
+            double ca = Math.cos(a), sa = Math.sin(a);
+            nodes.add(new ManeuverNode(m.t, k * (m.prograde * ca - m.radial * sa), k * (m.prograde * sa + m.radial * ca)));
+        }
+        w.nodes = Collections.unmodifiableList(nodes);
+    }
+
+    private static void fly(State w, Physics.Propagator prop, double dt, int steps, int stride, Result r, int i){
+        prop.start(w, dt);
+        final int base = i * r.pathPoints;
+        int len = 0;
+        r.pathX[base] = prop.relX; r.pathY[base] = prop.relY; len++;
+        boolean hit = false;
+        for (int k = 1; k <= steps; k++) {
+            if (!prop.advance()) { hit = true; break; }
+            if ((k % stride == 0 || k == steps) && len < r.pathPoints) { r.pathX[base + len] = prop.relX; r.pathY[base + len] = prop.relY; len++; }
+        }
+        if (hit && len < r.pathPoints) { r.pathX[base + len] = prop.relX; r.pathY[base + len] = prop.relY; len++; }
+        r.pathLen[i] = len;
+        r.impact[i] = hit;
+        r.impactT[i] = hit ? prop.T : Double.NaN;
+    }
+
+    static double mean(double[] a){ double m = 0.0; for (double v : a) m += v; return a.length > 0 ? m / a.length : Double.NaN; }
+
+    static double std(double[] a){
+        double m = mean(a), v = 0.0;
+        for (double x : a) v += (x - m) * (x - m);
+        return a.length > 1 ? Math.sqrt(v / (a.length - 1)) : 0.0;
+    }
+
+    /** Percentile q (0..1) of a sorted array. */
+    static double pct(double[] sorted, double q){
+        if (sorted.length == 0) return Double.NaN;
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(q * (sorted.length - 1)))];
+    }
+
+    public static void main(String[] args){
+        System.setProperty("java.awt.headless", "true");
+        Params p = new Params();
+        String snap = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--snapshot": snap = args[++i]; break;
+                    case "--n":        p.count = Integer.parseInt(args[++i]); break;
+                    case "--seed":     p.seed = Long.parseLong(args[++i]); break;
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            State s = new State();
+            if (snap != null) Snapshot.load(Paths.get(snap), s);
+            else {
+                State.Body e = s.bodies.get(Math.max(0, s.catalog().indexOf("Earth")));
+                double r = e.radius + 400e3, v = Math.sqrt(e.mu / r);
+                s.rx = e.cx; s.ry = e.cy + r; s.vx = e.vcx + v; s.vy = e.vcy;
+            }
+            run(s, p);                                  // warm-up
+            System.out.println(run(s, p).summary());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Dispersion: " + e.getMessage());
+            System.err.println("usage: java rocket.Dispersion [--snapshot file.rsnap] [--n count] [--seed n]");
+            System.exit(1);
+        }
+    }
+}
@@ -10,16 +10,26 @@ public final class DrawBodies {
   private DrawBodies(){}
   // Track placed label bounds this frame to avoid overlaps
   private static final ArrayList<Rectangle> LABEL_BOUNDS = new ArrayList<>();
+  // Labels are cached as one layer that follows the labelled bodies' screen positions
+  private static final Layer LABELS = new Layer(DrawBodies::paintLabels, true);
+  private static double[] labelAnchors = new double[32];
 
   public static void renderBodies(Graphics2D g2, SimPanel v, State s, Config c){
-    LABEL_BOUNDS.clear();
-    for(int i=0;i<Config.BODY_COUNT;i++) drawBody(g2,v,s,i,s.bodies.get(i));
+    final Catalog cat=s.catalog();
+    final double ppm=v.pxPerM(), w=v.getWidth(), h=v.getHeight();
+    for(int i=0;i<s.bodies.size();i++){
+      State.Body b=s.bodies.get(i);
+      // Off-screen cull (halo included) before any per-body work; matters for large catalogs
+      double reach=(b.radius+b.atmThick)*ppm+2.0, sx=v.w2sX(b.cx), sy=v.w2sY(b.cy);
+      if(sx+reach<0 || sy+reach<0 || sx-reach>w || sy-reach>h) continue;
+      drawBody(g2,v,cat,i,b);
+    }
   }
 
-  private static void drawBody(Graphics2D g2, SimPanel v, State s, int idx, State.Body b){
+  private static void drawBody(Graphics2D g2, SimPanel v, Catalog cat, int idx, State.Body b){
     final double cxpx=v.w2sX(b.cx), cypx=v.w2sY(b.cy);
     final double rpx=b.radius*v.pxPerM();
-    final boolean isEarth="Earth".equalsIgnoreCase(b.name);
+    final int ocean=cat.oceanArgb[idx], sky=cat.skyArgb[idx];
 
     // Tiny-body rule: draw 2px white dot, no label
     if (rpx < Config.TINY_BODY_THRESH_PX){
@@ -29,26 +39,27 @@ public final class DrawBodies {
     }
 
     if(rpx<=Config.FILL_MAX_RADIUS_PX){
-      // Full-disc
-      if(isEarth){
-        drawEarthTexturedDisc(g2,cxpx,cypx,rpx);
-        drawEarthAtmosphereFull(g2,cxpx,cypx,b,v);
+      // Full-disc (catalog colors: oceans with landmasses, and a sky glow instead of the halo gradient)
+      if((ocean>>>24)>0){
+        drawTexturedDisc(g2,cxpx,cypx,rpx,ocean,cat.colorArgb[idx]);
       }else{
-        g2.setColor(new Color(Config.BODY_COLOR_ARGB[idx],true));
+        g2.setColor(new Color(cat.colorArgb[idx],true));
         g2.fill(new Ellipse2D.Double(cxpx-rpx,cypx-rpx,rpx*2,rpx*2));
-        if(b.atmThick>0.0 && (Config.BODY_ATM_INNER_ARGB[idx]>>>24)>0){
-          float innerFrac=(float)(b.radius/(b.radius+b.atmThick));
-          float[] dist=new float[]{0f,innerFrac,1f};
-          Color[] cols=new Color[]{new Color(0,0,0,0),
-            new Color(Config.BODY_ATM_INNER_ARGB[idx],true),
-            new Color(Config.BODY_ATM_OUTER_ARGB[idx],true)};
-          float haloR=(float)((b.radius+b.atmThick)*v.pxPerM());
-          Paint old=g2.getPaint();
-          g2.setPaint(new RadialGradientPaint(
-            new Point2D.Float((float)cxpx,(float)cypx),haloR,dist,cols,MultipleGradientPaint.CycleMethod.NO_CYCLE));
-          g2.fill(new Ellipse2D.Double(cxpx-haloR,cypx-haloR,haloR*2,haloR*2));
-          g2.setPaint(old);
-        }
+      }
+      if((sky>>>24)>0){
+        drawSkyFull(g2,cxpx,cypx,b,v,sky);
+      }else if(b.atmThick>0.0 && (cat.atmInnerArgb[idx]>>>24)>0){
+        float innerFrac=(float)(b.radius/(b.radius+b.atmThick));
+        float[] dist=new float[]{0f,innerFrac,1f};
+        Color[] cols=new Color[]{new Color(0,0,0,0),
+          new Color(cat.atmInnerArgb[idx],true),
+          new Color(cat.atmOuterArgb[idx],true)};
+        float haloR=(float)((b.radius+b.atmThick)*v.pxPerM());
+        Paint old=g2.getPaint();
+        g2.setPaint(new RadialGradientPaint(
+          new Point2D.Float((float)cxpx,(float)cypx),haloR,dist,cols,MultipleGradientPaint.CycleMethod.NO_CYCLE));
+        g2.fill(new Ellipse2D.Double(cxpx-haloR,cypx-haloR,haloR*2,haloR*2));
+        g2.setPaint(old);
       }
     }else{
       // Horizon arc (opaque interior bands)
@@ -60,17 +71,17 @@ public final class DrawBodies {
       final int N=Config.ARC_SAMPLES;
       final double[] arcSX=new double[N], arcSY=new double[N], thetas=new double[N];
 
+      final double spacingM=span*b.radius/(N-1);   // picks the terrain level of detail
       for(int i=0;i<N;i++){
         double t=(i/(double)(N-1)-0.5)*span, th=camAng+t; if(th<0) th+=2*PI; if(th>=2*PI) th-=2*PI;
-        double rSurf=isEarth? b.radius : b.radius+Physics.elevationAtAngle(b,th);
-        double wx=b.cx+rSurf*cos(th), wy=b.cy+rSurf*sin(th);
-        thetas[i]=th; arcSX[i]=v.w2sX(wx); arcSY[i]=v.w2sY(wy);
+        double rSurf=b.radius+b.terrain.elevation(th,spacingM);
+        thetas[i]=th; arcSX[i]=v.w2sX(b.cx,rSurf*cos(th)); arcSY[i]=v.w2sY(b.cy,rSurf*sin(th));
       }
 
       // Interior
       double need=hypot(v.getWidth(),v.getHeight())*1.8;
       int bands=min(Config.ARC_MAX_SEGMENTS,max(1,(int)ceil(need/Config.ARC_SEGMENT_PX)));
-      Color interior=isEarth? new Color(0xFF69B36B,true):new Color(Config.BODY_COLOR_ARGB[idx],true);
+      Color interior=new Color(cat.colorArgb[idx],true);
       for(int bnd=0;bnd<bands;bnd++){
         int offO=bnd*Config.ARC_SEGMENT_PX, offI=(bnd+1)*Config.ARC_SEGMENT_PX;
         Polygon poly=new Polygon();
@@ -86,8 +97,7 @@ public final class DrawBodies {
         final double atmPx=b.atmThick*v.pxPerM();
         final int ab=Math.max(200,Config.ATM_BANDS*6);
         final double bandPx=Math.max(1.25,atmPx/ab);
-        final Color base=isEarth? new Color(135,206,235,255)
-                                : new Color(Config.BODY_ATM_INNER_ARGB[idx],true);
+        final Color base=new Color((sky>>>24)>0? sky : cat.atmInnerArgb[idx],true);
         for(int bnd=0;bnd<ab;bnd++){
           double offO=bnd*bandPx, offI=(bnd+1)*bandPx;
           Path2D.Double ring=new Path2D.Double();
@@ -106,14 +116,43 @@ public final class DrawBodies {
       }
     }
 
-    // Label (cull if too small or overlaps)
-    if (rpx >= Config.LABEL_HIDE_BELOW_RPX){
+  }
+
+  /** Body name labels, drawn above bodies and below vessels (a cached layer). */
+  public static void renderLabels(Graphics2D g2, SimPanel v, State s){
+    final int pad=Layer.padFor(v);
+    int n=0;
+    for(int i=0;i<s.bodies.size();i++){
+      State.Body b=s.bodies.get(i);
+      if(!labelled(v,b,pad)) continue;
+      if(labelAnchors.length<2*n+2) labelAnchors=java.util.Arrays.copyOf(labelAnchors,4*n+4);
+      labelAnchors[2*n]=v.w2sX(b.cx); labelAnchors[2*n+1]=v.w2sY(b.cy);
+      n++;
+    }
+    LABELS.draw(g2,v,s,s.catalog(),labelAnchors,n);
+  }
+
+  /** Whether b gets a label: big enough on screen and its label point within pad px of the viewport. */
+  private static boolean labelled(SimPanel v, State.Body b, int pad){
+    double rpx=b.radius*v.pxPerM();
+    if(rpx<Config.TINY_BODY_THRESH_PX || rpx<Config.LABEL_HIDE_BELOW_RPX) return false;
+    double sx=v.w2sX(b.cx)+10, sy=v.w2sY(b.cy)-10;
+    return sx>=-pad && sy>=-pad && sx<=v.getWidth()+pad && sy<=v.getHeight()+pad;
+  }
+
+  // Label (cull if too small or overlaps)
+  private static void paintLabels(Graphics2D g2, SimPanel v, State s){
+    LABEL_BOUNDS.clear();
+    final int pad=Layer.padFor(v);
+    Font f=new Font(Config.LABEL_FONT_FAMILY, Font.PLAIN, Config.LABEL_FONT_SIZE);
+    g2.setFont(f);
+    FontMetrics fm=g2.getFontMetrics();
+    for(int i=0;i<s.bodies.size();i++){
+      State.Body b=s.bodies.get(i);
+      if(!labelled(v,b,pad)) continue;
       String text=b.name;
-      Font f=new Font(Config.LABEL_FONT_FAMILY, Font.PLAIN, Config.LABEL_FONT_SIZE);
-      g2.setFont(f);
-      FontMetrics fm=g2.getFontMetrics();
       int ox=10, oy=-10;
-      int sx=(int)round(cxpx)+ox, sy=(int)round(cypx)+oy;
+      int sx=(int)round(v.w2sX(b.cx))+ox, sy=(int)round(v.w2sY(b.cy))+oy;
       Rectangle bounds=new Rectangle(sx, sy - fm.getAscent(), fm.stringWidth(text), fm.getAscent());
       boolean overlaps=false;
       for(Rectangle r: LABEL_BOUNDS){ if (r.intersects(bounds)) { overlaps=true; break; } }
@@ -125,9 +164,9 @@ public final class DrawBodies {
     }
   }
 
-  // Earth full-disc: oceans + land (with a top-edge cap touching rim)
-  private static void drawEarthTexturedDisc(Graphics2D g2,double cx,double cy,double rpx){
-    Color ocean=new Color(0xFF2A74C5,true), land=new Color(0xFF69B36B,true);
+  // Full disc with an ocean: ocean + land (with a top-edge cap touching rim)
+  private static void drawTexturedDisc(Graphics2D g2,double cx,double cy,double rpx,int oceanArgb,int landArgb){
+    Color ocean=new Color(oceanArgb,true), land=new Color(landArgb,true);
     Shape disc=new Ellipse2D.Double(cx-rpx,cy-rpx,rpx*2,rpx*2);
     g2.setColor(ocean); g2.fill(disc);
     double[][] P={
@@ -145,14 +184,14 @@ public final class DrawBodies {
     g2.setComposite(AlphaComposite.SrcOver);
   }
 
-  // Earth full-disc atmosphere as donut: sky-blue → transparent
-  private static void drawEarthAtmosphereFull(Graphics2D g2,double cx,double cy,State.Body b,SimPanel v){
+  // Full-disc atmosphere as donut: opaque sky color → transparent
+  private static void drawSkyFull(Graphics2D g2,double cx,double cy,State.Body b,SimPanel v,int skyArgb){
     if(b.atmThick<=0) return;
     double r=b.radius, haloM=r+b.atmThick;
     float haloR=(float)(haloM*v.pxPerM()), innerR=(float)(r*v.pxPerM());
     float fSurface=(float)(r/haloM);
     float[] dist=new float[]{fSurface,1f};
-    Color[] cols=new Color[]{new Color(135,206,235,255),new Color(135,206,235,0)};
+    Color[] cols=new Color[]{new Color(skyArgb|0xFF000000,true),new Color(skyArgb&0x00FFFFFF,true)};
     Path2D.Double donut=new Path2D.Double(Path2D.WIND_EVEN_ODD);
     donut.append(new Ellipse2D.Double(cx-haloR,cy-haloR,haloR*2,haloR*2),false);
     donut.append(new Ellipse2D.Double(cx-innerR,cy-innerR,innerR*2,innerR*2),false);
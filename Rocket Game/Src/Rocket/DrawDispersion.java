@@ -0,0 +1,69 @@
+// File: src/rocket/DrawDispersion.java
+package rocket;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class DrawDispersion {
+    private DrawDispersion(){}
+
+    private static final Color PATHS  = new Color(255, 180, 80, 28);
+    private static final Color IMPACT = new Color(255, 80, 60, 200);
+    private static final Font  FONT   = new Font(Config.LABEL_FONT_FAMILY, Font.PLAIN, Config.LABEL_FONT_SIZE);
+
+    private static final AtomicReference<Dispersion.Result> LATEST = new AtomicReference<>();
+    private static volatile Thread running;
+
+    /**
+     * M key: start a dispersion run from this snapshot on a background thread, or clear the
+     * one on screen. A run already in progress is left to finish. A result is dropped as soon as
+     * the prediction it was run from goes stale (thrust, reset, quick-load; see State.predEpoch).
+     */
+    public static void toggle(State snap){
+        if (LATEST.getAndSet(null) != null || running != null) return;
+        Thread t = new Thread(() -> {
+            try { LATEST.set(Dispersion.run(snap, new Dispersion.Params())); }
+            finally { running = null; }
+        }, "rocket-dispersion");
+        t.setDaemon(true);
+        running = t;
+        t.start();
+    }
+
+    /** Every trajectory as one faint polyline (a single batched path), impacts as dots, and the statistics. */
+    public static void draw(Graphics2D g2, SimPanel v, State s){
+        if (running != null) {
+            g2.setFont(FONT); g2.setColor(Color.WHITE);
+            g2.drawString("Dispersion: running...", 12, v.getHeight() - 40);
+        }
+        Dispersion.Result r = LATEST.get();
+        if (r == null) return;
+        if (r.epoch != s.predEpoch || r.refIdx >= s.bodies.size()) { LATEST.compareAndSet(r, null); return; }
+
+        // Samples are relative to the reference body; plot them around its current center
+        State.Body ref = s.bodies.get(r.refIdx);
+        Path2D.Double paths = new Path2D.Double(Path2D.WIND_NON_ZERO, r.n * r.pathPoints);
+        for (int i = 0; i < r.n; i++) {
+            int base = i * r.pathPoints, len = r.pathLen[i];
+            if (len < 2) continue;
+            paths.moveTo(v.w2sX(ref.cx, r.pathX[base]), v.w2sY(ref.cy, r.pathY[base]));
+            for (int k = 1; k < len; k++) paths.lineTo(v.w2sX(ref.cx, r.pathX[base + k]), v.w2sY(ref.cy, r.pathY[base + k]));
+        }
+        g2.setStroke(new BasicStroke(1f));
+        g2.setColor(PATHS);
+        g2.draw(paths);
+
+        // Impact points are the last sample of trajectories that hit
+        g2.setColor(IMPACT);
+        for (int i = 0; i < r.n; i++) {
+            if (!r.impact[i] || r.pathLen[i] == 0) continue;
+            int k = i * r.pathPoints + r.pathLen[i] - 1;
+            int sx = (int)Math.round(v.w2sX(ref.cx, r.pathX[k])), sy = (int)Math.round(v.w2sY(ref.cy, r.pathY[k]));
+            g2.fillRect(sx - 1, sy - 1, 3, 3);
+        }
+
+        g2.setFont(FONT); g2.setColor(Color.WHITE);
+        g2.drawString("Dispersion: " + r.summary(), 12, v.getHeight() - 40);
+    }
+}
@@ -0,0 +1,23 @@
+// File: src/rocket/DrawFleet.java
+package rocket;
+import java.awt.*;
+
+public final class DrawFleet {
+    private DrawFleet(){}
+
+    private static final Color FLYING = new Color(120, 230, 255, 230);
+    private static final Color LANDED = new Color(160, 160, 160, 200);
+
+    /** One small dot per vessel; off-screen vessels are skipped before any drawing call. */
+    public static void draw(Graphics2D g2, SimPanel v, State s){
+        final Fleet f = s.fleet;
+        if (f.n == 0) return;
+        final int w = v.getWidth(), h = v.getHeight();
+        for (int i = 0; i < f.n; i++) {
+            int sx = (int)Math.round(v.w2sX(f.x[i])), sy = (int)Math.round(v.w2sY(f.y[i]));
+            if (sx < -2 || sy < -2 || sx > w + 2 || sy > h + 2) continue;
+            g2.setColor(f.status[i] == Fleet.LANDED ? LANDED : FLYING);
+            g2.fillRect(sx - 1, sy - 1, 3, 3);
+        }
+    }
+}
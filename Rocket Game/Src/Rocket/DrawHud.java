@@ -8,6 +8,8 @@ public final class DrawHud {
     private static final Font HUD_FONT   = new Font(Config.HUD_FONT_FAMILY, Font.PLAIN, Config.HUD_FONT_SIZE);
     private static final Font LABEL_FONT = new Font(Config.LABEL_FONT_FAMILY, Font.PLAIN, Config.LABEL_FONT_SIZE);
 
+    private static final double[] GRAV = new double[2]; // drawing-thread scratch
+
     // Cache of button bounds computed during draw pass (screen coords)
     private static Rectangle[] timeBtnBounds = new Rectangle[0];
 
@@ -39,11 +41,8 @@ public final class DrawHud {
         double vt  =  (s.vx*utx + s.vy*uty);
 
         // Net gravity magnitude
-        double grav=0.0;
-        for(State.Body b: s.bodies){
-            double dx=s.rx-b.cx, dy=s.ry-b.cy, R2=dx*dx+dy*dy;
-            if(R2>1) grav += b.mu / R2;
-        }
+        Gravity.accel(s.store(), s.rx, s.ry, GRAV);
+        double grav = Math.hypot(GRAV[0], GRAV[1]);
 
         // Altitude (clamped non-negative)
         double surfR = Physics.surfaceRadiusAt(ref, s.rx, s.ry);
@@ -54,13 +53,16 @@ public final class DrawHud {
         String camMode = s.followRocket ? "ROCKET" : (followed != null ? "PLANET:" + followed : "FREE");
 
         // Build left-column lines with fixed precision
-        String line0 = String.format("Cam: %s | %s", camMode, s.paused ? "PAUSED" : "RUN");
-        String line1 = String.format("time× = %6.2f"   , s.timeScale);
+        String line0 = String.format("Cam: %s | %s%s", camMode, s.paused ? "PAUSED" : "RUN", s.replay ? " | REPLAY" : "");
+        String line1 = String.format("time× = %6.2f%s" , s.timeScale, s.onRails ? "  (on rails)" : "");
         String line2 = String.format("Throttle = %5.1f%%", 100*s.throttle);
         String line3 = String.format("v_r (down) = %7.1f m/s", vr);
         String line4 = String.format("v_t (tan)  = %7.1f m/s", vt);
         String line5 = String.format("Alt = %9.1f m", alt);
         String line6 = String.format("g = %8.3f m/s²", grav);
+        String line6b = String.format("Integrator = %s", s.integrator.label());
+        String line6c = String.format("Prediction = %s, %s", s.predMode.label(), formatDuration(s.predHorizonSec));
+        String line6d = String.format("Vessels = %d (%d landed)", s.fleet.n, s.fleet.landedCount());
 
         int x = 12;
         int y = 18;
@@ -73,6 +75,16 @@ public final class DrawHud {
         g2.drawString(line4, x, y);            y += lh;
         g2.drawString(line5, x, y);            y += lh;
         g2.drawString(line6, x, y);            y += lh;
+        g2.drawString(line6b, x, y);           y += lh;
+        g2.drawString(line6c, x, y);           y += lh;
+        if (s.fleet.n > 0) { g2.drawString(line6d, x, y); y += lh; }
+        ManeuverNode node = s.selectedNode();
+        if (node != null) {
+            g2.drawString(String.format("Node %d/%d: T%+.0f s, pro %+.1f rad %+.1f m/s, burn %.1f s",
+                    s.selectedNode + 1, s.nodes.size(), s.simTimeSec - node.t, node.prograde, node.radial,
+                    Math.min(node.burnSec(), s.fuelSec)), x, y);
+            y += lh;
+        }
 
         // --- Fuel readout (text + bar) ---
         double fuelFrac = s.fuelFrac();
@@ -134,8 +146,10 @@ public final class DrawHud {
             g2.setColor(outline);
             g2.drawRect(r.x, r.y, r.width, r.height);
 
-            // Label text like "1x", "5x", ...
-            String label = (preset % 1.0 == 0.0)
+            // Label text like "1x", "5x", ..., "100k", "10M"
+            String label = (preset >= 1e6) ? String.format("%.0fM", preset / 1e6)
+                         : (preset >= 1e5) ? String.format("%.0fk", preset / 1e3)
+                         : (preset % 1.0 == 0.0)
                     ? String.format("%.0fx", preset)
                     : String.format("%.2fx", preset);
             // Fit text centered
@@ -148,6 +162,15 @@ public final class DrawHud {
         }
     }
 
+    /** Compact duration for HUD text: 45s, 12.5m, 3.2h, 41.0d, 2.3y. */
+    private static String formatDuration(double sec){
+        if (sec < 120) return String.format("%.0fs", sec);
+        if (sec < 7200) return String.format("%.1fm", sec / 60.0);
+        if (sec < 172800) return String.format("%.1fh", sec / 3600.0);
+        if (sec < 3.15576e7 * 2) return String.format("%.1fd", sec / 86400.0);
+        return String.format("%.1fy", sec / 3.15576e7);
+    }
+
     private static boolean approxEqual(double a, double b, double eps){ return Math.abs(a-b) <= eps; }
 
     private static String followedBodyName(SimPanel v, State s){
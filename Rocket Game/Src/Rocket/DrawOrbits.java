@@ -2,11 +2,44 @@
 package rocket;
 
 import java.awt.*;
+import java.awt.geom.Path2D;
 
+/**
+ * Orbit ellipses of on-rails bodies (a cached Layer). Each orbit is culled against the layer's
+ * region, only the arc of it that crosses the region is sampled, with a parameter step chosen so
+ * the chords stay within Config.ORBIT_TOL_PX of the curve, and the arc is drawn as one Path2D.
+ * Vertices come from a unit-circle table (UNIT_COS/UNIT_SIN) at a power-of-two stride; arcs that
+ * need a finer step than the table (zoomed far in on a large orbit) rotate from an exact start
+ * angle instead.
+ */
 public final class DrawOrbits {
     private DrawOrbits(){}
 
+    private static final int TABLE = Config.ORBIT_TABLE;                 // power of two
+    private static final double TABLE_STEP = 2.0 * Math.PI / TABLE;
+    private static final double[] UNIT_COS = new double[TABLE + 1], UNIT_SIN = new double[TABLE + 1];
+    static {
+        for (int k = 0; k <= TABLE; k++) { UNIT_COS[k] = Math.cos(k * TABLE_STEP); UNIT_SIN[k] = Math.sin(k * TABLE_STEP); }
+    }
+
+    // Orbits move with their parents' screen positions; the layer is reused while those move together
+    private static final Layer LAYER = new Layer(DrawOrbits::paint, true);
+    private static double[] anchors = new double[32];
+
     public static void draw(Graphics2D g2, SimPanel v, State s) {
+        final Catalog cat = s.catalog();
+        int n = 0;
+        for (int i = 0; i < cat.n; i++) {
+            if (!cat.onRails(i) || (cat.orbitA[i] <= 0.0 && cat.orbitB[i] <= 0.0)) continue;
+            if (anchors.length < 2 * n + 2) anchors = java.util.Arrays.copyOf(anchors, 4 * n + 4);
+            State.Body c = s.bodies.get(cat.parent[i]);
+            anchors[2 * n] = v.w2sX(c.cx); anchors[2 * n + 1] = v.w2sY(c.cy);
+            n++;
+        }
+        LAYER.draw(g2, v, s, cat, anchors, n);
+    }
+
+    private static void paint(Graphics2D g2, SimPanel v, State s) {
         // Keep opacity strong, reduce thickness ~50% (from 2.5 to 1.25)
         final int alpha = 160;
         final Color orbitColor = new Color(
@@ -21,30 +54,94 @@ public final class DrawOrbits {
         g2.setColor(orbitColor);
         g2.setStroke(new BasicStroke(thickness, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
 
-        final int N = Math.max(192, Config.ARC_SAMPLES);
-        final double TWO_PI = Math.PI * 2.0;
-
-        for (int i = 0; i < Config.BODY_COUNT; i++) {
-            int mode = Config.ORBIT_MODE[i], centerIdx = Config.ORBIT_CENTER_IDX[i];
-            if (mode == 0 || centerIdx < 0) continue;
-
-            State.Body c = s.bodies.get(centerIdx);
-            double A = Config.ORBIT_A_M[i], B = Config.ORBIT_B_M[i];
-            if (A <= 0.0 && B <= 0.0) continue;
-
-            double prevSX = 0, prevSY = 0;
-            for (int k = 0; k <= N; k++) {
-                double t = (k / (double) N) * TWO_PI;
-                double wx = c.cx + A * Math.cos(t);
-                double wy = c.cy + B * Math.sin(t);
-                double sx = v.w2sX(wx), sy = v.w2sY(wy);
-                if (k > 0) {
-                    g2.drawLine((int)Math.round(prevSX), (int)Math.round(prevSY),
-                                (int)Math.round(sx),     (int)Math.round(sy));
+        // Region to cover (viewport plus the layer margin), grown by the stroke
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, v.getWidth(), v.getHeight());
+        final double x0 = clip.x - 2.0, y0 = clip.y - 2.0, x1 = clip.x + clip.width + 2.0, y1 = clip.y + clip.height + 2.0;
+
+        final double ppm = v.pxPerM();
+        final Path2D.Double path = new Path2D.Double(Path2D.WIND_NON_ZERO, 256);
+        final Catalog cat = s.catalog();
+        for (int i = 0; i < cat.n; i++) {
+            if (!cat.onRails(i)) continue;
+
+            State.Body c = s.bodies.get(cat.parent[i]);
+            double a = cat.orbitA[i] * ppm, b = cat.orbitB[i] * ppm;    // semi-axes (px)
+            if (!(Math.max(a, b) >= 0.5)) continue;                     // nothing to see
+            double cx = v.w2sX(c.cx), cy = v.w2sY(c.cy);
+
+            // Cull: bounding box misses the region, or the region lies wholly inside the ellipse
+            if (cx + a < x0 || cx - a > x1 || cy + b < y0 || cy - b > y1) continue;
+            if (a > 0.0 && b > 0.0 && inside(x0, y0, cx, cy, a, b) && inside(x1, y0, cx, cy, a, b)
+                                   && inside(x0, y1, cx, cy, a, b) && inside(x1, y1, cx, cy, a, b)) continue;
+
+            // Parameter step from the chord error on the largest curvature radius, a^2/b or b^2/a
+            double lo = Math.min(a, b), hi = Math.max(a, b);
+            double rc = (lo > 0.0) ? Math.min(hi * hi / lo, hi * Config.ORBIT_MAX_ECC_RATIO) : hi;
+            double dt = Math.sqrt(8.0 * Config.ORBIT_TOL_PX / rc);
+
+            // Visible arc: with (u, w) = ((x - cx)/a, (cy - y)/b) the point at parameter t lies at
+            // polar angle t, so a region not containing the center spans the corners' angles
+            double t0 = 0.0, t1 = 2.0 * Math.PI;
+            boolean whole = x0 <= cx && cx <= x1 && y0 <= cy && cy <= y1;
+            if (!whole && a > 0.0 && b > 0.0) {
+                double ref = Math.atan2((cy - 0.5 * (y0 + y1)) / b, (0.5 * (x0 + x1) - cx) / a);
+                double dMin = 0.0, dMax = 0.0;
+                for (int k = 0; k < 4; k++) {
+                    double px = (k & 1) == 0 ? x0 : x1, py = (k & 2) == 0 ? y0 : y1;
+                    double d = Math.atan2((cy - py) / b, (px - cx) / a) - ref;
+                    if (d > Math.PI) d -= 2.0 * Math.PI; else if (d < -Math.PI) d += 2.0 * Math.PI;
+                    dMin = Math.min(dMin, d); dMax = Math.max(dMax, d);
                 }
-                prevSX = sx; prevSY = sy;
+                t0 = ref + dMin - dt; t1 = ref + dMax + dt;
+            } else {
+                whole = true;
             }
+
+            path.reset();
+            if (dt >= TABLE_STEP) tableArc(path, cx, cy, a, b, t0, t1, whole, dt);
+            else rotatedArc(path, cx, cy, a, b, t0, t1, dt);
+            g2.draw(path);
         }
         g2.setStroke(oldStroke);
     }
+
+    private static boolean inside(double x, double y, double cx, double cy, double a, double b){
+        double u = (x - cx) / a, w = (y - cy) / b;
+        return u * u + w * w < 1.0;
+    }
+
+    /** Arc [t0, t1] (the whole ellipse if whole) from the unit-circle table, stride a power of two at most dt. */
+    private static void tableArc(Path2D.Double path, double cx, double cy, double a, double b,
+                                 double t0, double t1, boolean whole, double dt){
+        int stride = Integer.highestOneBit(Math.max(1, Math.min(TABLE / Config.ORBIT_MIN_SEG, (int) (dt / TABLE_STEP))));
+        int k0, k1;
+        if (whole) { k0 = 0; k1 = TABLE; }
+        else {
+            k0 = (int) Math.floor(t0 / (stride * TABLE_STEP)) * stride;
+            k1 = (int) Math.ceil(t1 / (stride * TABLE_STEP)) * stride;
+        }
+        for (int k = k0; k <= k1; k += stride) {
+            int j = k & (TABLE - 1);                       // wraps negative k too
+            double x = cx + a * UNIT_COS[j], y = cy - b * UNIT_SIN[j];
+            if (k == k0) path.moveTo(x, y); else path.lineTo(x, y);
+        }
+        if (whole) path.closePath();
+    }
+
+    /** Arc [t0, t1] at step dt by rotation, re-seeded exactly every Config.ORBIT_RESEED steps. */
+    private static void rotatedArc(Path2D.Double path, double cx, double cy, double a, double b,
+                                   double t0, double t1, double dt){
+        int n = (int) Math.min(Config.ORBIT_MAX_SEG, Math.ceil((t1 - t0) / dt));
+        dt = (t1 - t0) / Math.max(1, n);
+        final double cd = Math.cos(dt), sd = Math.sin(dt);
+        double ct = 0.0, st = 0.0;
+        for (int k = 0; k <= n; k++) {
+            if (k % Config.ORBIT_RESEED == 0) { double t = t0 + k * dt; ct = Math.cos(t); st = Math.sin(t); }
+            double x = cx + a * ct, y = cy - b * st;
+            if (k == 0) path.moveTo(x, y); else path.lineTo(x, y);
+            double cn = ct * cd - st * sd;
+            st = st * cd + ct * sd; ct = cn;
+        }
+    }
 }
@@ -1,26 +1,68 @@
 // File: src/rocket/DrawPrediction.java
 package rocket;
-import java.awt.*; import java.awt.geom.Point2D; import java.util.List;
+import java.awt.*;
 
 public final class DrawPrediction {
     private DrawPrediction(){}
 
-    /** Just draw the ballistic prediction points returned by Physics. */
+    private static final PredictionWorker WORKER = new PredictionWorker();
+    private static final Color NODE = new Color(80, 160, 255, 220), NODE_SELECTED = new Color(255, 220, 80, 240);
+    private static final Color EVENT = new Color(255, 255, 255, 200), IMPACT = new Color(255, 90, 70, 230);
+    private static final Font  FONT = new Font(Config.LABEL_FONT_FAMILY, Font.PLAIN, Config.LABEL_FONT_SIZE);
+    private static volatile PredictionWorker.Path pinned;
+
+    /**
+     * Draw this fixed path instead of the background predictor's; null goes back to live
+     * prediction. While a path is pinned nothing is queued and the worker is never started,
+     * so the benchmarks measure drawing alone.
+     */
+    public static void pin(PredictionWorker.Path p){ pinned = p; }
+
+    /**
+     * Queue this frame's snapshot for the background predictor and draw its latest finished path.
+     * During a manual burn that is the coast from engine cut-off now (see PredictionCache).
+     */
     public static void draw(Graphics2D g2, SimPanel v, State s, Config c){
-        final double dt = Config.BASE_PRED_DT;
-        List<Point2D.Double> pts = Physics.predictBallistic(s, s.predHorizonSec, dt);
-        if (pts.size() < 2) return;
+        PredictionWorker.Path p = pinned;
+        if (p == null) { WORKER.request(s); p = WORKER.latest(); }
+        if (p == null) return;
+        final int i0 = p.firstAtOrAfter(s.simTimeSec), n = p.size();
+        if (n - i0 < 2) return;
 
+        // Samples are relative to the reference body; plot them around its current center
+        State.Body ref = s.bodies.get(p.refIdx);
         g2.setColor(new Color(Config.COL_PRED_ARGB, true));
         g2.setStroke(new BasicStroke(1f));
 
-        Point2D.Double prev = pts.get(0);
-        for (int i = 1; i < pts.size(); i++){
-            Point2D.Double p = pts.get(i);
-            int x1 = (int)Math.round(v.w2sX(prev.x)), y1 = (int)Math.round(v.w2sY(prev.y));
-            int x2 = (int)Math.round(v.w2sX(p.x)),    y2 = (int)Math.round(v.w2sY(p.y));
+        int x1 = (int)Math.round(v.w2sX(ref.cx, p.relX[i0])), y1 = (int)Math.round(v.w2sY(ref.cy, p.relY[i0]));
+        for (int i = i0 + 1; i < n; i++){
+            int x2 = (int)Math.round(v.w2sX(ref.cx, p.relX[i])), y2 = (int)Math.round(v.w2sY(ref.cy, p.relY[i]));
             g2.drawLine(x1, y1, x2, y2);
-            prev = p;
+            x1 = x2; y1 = y2;
+        }
+
+        // Maneuver nodes on the path (the selected one highlighted)
+        for (int k = 0; k < s.nodes.size(); k++) {
+            int i = p.firstAtOrAfter(s.nodes.get(k).t);
+            if (i < i0 || i >= n) continue;
+            int sx = (int)Math.round(v.w2sX(ref.cx, p.relX[i])), sy = (int)Math.round(v.w2sY(ref.cy, p.relY[i]));
+            g2.setColor(k == s.selectedNode ? NODE_SELECTED : NODE);
+            g2.fillPolygon(new int[]{sx, sx + 5, sx, sx - 5}, new int[]{sy - 5, sy, sy + 5, sy}, 4);
+        }
+
+        // Events the path stops at (impact, atmosphere entry, SOI change, apsides); a marker
+        // landing on the previous one (repeated orbits) is skipped
+        g2.setFont(FONT);
+        int lx = Integer.MIN_VALUE, ly = 0;
+        for (int i = i0; i < n; i++) {
+            Events.Type e = p.event[i];
+            if (e == null) continue;
+            int sx = (int)Math.round(v.w2sX(ref.cx, p.relX[i])), sy = (int)Math.round(v.w2sY(ref.cy, p.relY[i]));
+            if (Math.abs(sx - lx) < 12 && Math.abs(sy - ly) < 12) continue;
+            g2.setColor(e == Events.Type.SURFACE ? IMPACT : EVENT);
+            g2.drawOval(sx - 3, sy - 3, 6, 6);
+            g2.drawString(e.label, sx + 6, sy - 4);
+            lx = sx; ly = sy;
         }
     }
 }
@@ -11,17 +11,22 @@ public final class DrawRocket {
         double tx = Math.cos(s.ang), ty = -Math.sin(s.ang);
         double halfW = Config.BODY_W/2.0;
 
-        double blx = s.rx + (-halfW)*tx, bly = s.ry + (-halfW)*ty;
-        double brx = s.rx + ( halfW)*tx, bry = s.ry + ( halfW)*ty;
+        // Geometry relative to the frame body (floating origin; see SimPanel.w2sX(base, off))
+        State.Body fb = s.frameCurrent() ? s.bodies.get(s.frame) : null;
+        final double ox = (fb != null) ? fb.cx : s.rx, oy = (fb != null) ? fb.cy : s.ry;
+        final double rlx = (fb != null) ? s.frx : 0.0, rly = (fb != null) ? s.fry : 0.0;
+
+        double blx = rlx + (-halfW)*tx, bly = rly + (-halfW)*ty;
+        double brx = rlx + ( halfW)*tx, bry = rly + ( halfW)*ty;
         double tlx = blx + Config.BODY_H*nx, tly = bly + Config.BODY_H*ny;
         double trx = brx + Config.BODY_H*nx, try_ = bry + Config.BODY_H*ny;
         double apexX = (tlx + trx)/2.0 + Config.CONE_H*nx;
         double apexY = (tly + try_)/2.0 + Config.CONE_H*ny;
 
-        double bcx = v.w2sX(s.rx), bcy = v.w2sY(s.ry);
-        double tcx = (v.w2sX(tlx) + v.w2sX(trx))*0.5, tcy = (v.w2sY(tly) + v.w2sY(try_))*0.5;
+        double bcx = v.w2sX(ox, rlx), bcy = v.w2sY(oy, rly);
+        double tcx = (v.w2sX(ox, tlx) + v.w2sX(ox, trx))*0.5, tcy = (v.w2sY(oy, tly) + v.w2sY(oy, try_))*0.5;
         double bodyPix = Math.hypot(tcx - bcx, tcy - bcy);
-        double conePix = Math.hypot(v.w2sX(apexX)-tcx, v.w2sY(apexY)-tcy);
+        double conePix = Math.hypot(v.w2sX(ox, apexX)-tcx, v.w2sY(oy, apexY)-tcy);
         double fullHeightPx = bodyPix + conePix;
 
         if (fullHeightPx < Config.ARROW_MIN_HEIGHT_PX) {
@@ -41,31 +46,31 @@ public final class DrawRocket {
             return;
         }
 
-        int[] fx = new int[]{ (int)Math.round(v.w2sX(tlx)), (int)Math.round(v.w2sX(trx)),
-                              (int)Math.round(v.w2sX(brx)), (int)Math.round(v.w2sX(blx)) };
-        int[] fy = new int[]{ (int)Math.round(v.w2sY(tly)), (int)Math.round(v.w2sY(try_)),
-                              (int)Math.round(v.w2sY(bry)), (int)Math.round(v.w2sY(bly)) };
+        int[] fx = new int[]{ (int)Math.round(v.w2sX(ox, tlx)), (int)Math.round(v.w2sX(ox, trx)),
+                              (int)Math.round(v.w2sX(ox, brx)), (int)Math.round(v.w2sX(ox, blx)) };
+        int[] fy = new int[]{ (int)Math.round(v.w2sY(oy, tly)), (int)Math.round(v.w2sY(oy, try_)),
+                              (int)Math.round(v.w2sY(oy, bry)), (int)Math.round(v.w2sY(oy, bly)) };
         g2.setColor(new Color(200,220,255)); g2.fillPolygon(fx, fy, 4);
         g2.setColor(new Color(0,0,0,120)); g2.setStroke(new BasicStroke(1.5f)); g2.drawPolygon(fx, fy, 4);
 
-        int[] cxp = new int[]{ (int)Math.round(v.w2sX(apexX)), (int)Math.round(v.w2sX(trx)), (int)Math.round(v.w2sX(tlx)) };
-        int[] cyp = new int[]{ (int)Math.round(v.w2sY(apexY)), (int)Math.round(v.w2sY(try_)), (int)Math.round(v.w2sY(tly)) };
+        int[] cxp = new int[]{ (int)Math.round(v.w2sX(ox, apexX)), (int)Math.round(v.w2sX(ox, trx)), (int)Math.round(v.w2sX(ox, tlx)) };
+        int[] cyp = new int[]{ (int)Math.round(v.w2sY(oy, apexY)), (int)Math.round(v.w2sY(oy, try_)), (int)Math.round(v.w2sY(oy, tly)) };
         g2.setColor(new Color(200,220,255)); g2.fillPolygon(cxp, cyp, 3);
         g2.setColor(new Color(0,0,0,120)); g2.drawPolygon(cxp, cyp, 3);
 
-        int baseMidX = (int)Math.round(v.w2sX(s.rx));
-        int baseMidY = (int)Math.round(v.w2sY(s.ry + 0.5));
-        int[] lfx = new int[]{ (int)Math.round(v.w2sX(blx)),
-                               (int)Math.round(v.w2sX(blx - Config.FIN_LEN*tx - Config.FIN_DROP*nx)),
+        int baseMidX = (int)Math.round(v.w2sX(ox, rlx));
+        int baseMidY = (int)Math.round(v.w2sY(oy, rly + 0.5));
+        int[] lfx = new int[]{ (int)Math.round(v.w2sX(ox, blx)),
+                               (int)Math.round(v.w2sX(ox, blx - Config.FIN_LEN*tx - Config.FIN_DROP*nx)),
                                baseMidX };
-        int[] lfy = new int[]{ (int)Math.round(v.w2sY(bly)),
-                               (int)Math.round(v.w2sY(bly - Config.FIN_LEN*ty - Config.FIN_DROP*ny)),
+        int[] lfy = new int[]{ (int)Math.round(v.w2sY(oy, bly)),
+                               (int)Math.round(v.w2sY(oy, bly - Config.FIN_LEN*ty - Config.FIN_DROP*ny)),
                                baseMidY };
-        int[] rfx = new int[]{ (int)Math.round(v.w2sX(brx)),
-                               (int)Math.round(v.w2sX(brx + Config.FIN_LEN*tx - Config.FIN_DROP*nx)),
+        int[] rfx = new int[]{ (int)Math.round(v.w2sX(ox, brx)),
+                               (int)Math.round(v.w2sX(ox, brx + Config.FIN_LEN*tx - Config.FIN_DROP*nx)),
                                baseMidX };
-        int[] rfy = new int[]{ (int)Math.round(v.w2sY(bry)),
-                               (int)Math.round(v.w2sY(bry + Config.FIN_LEN*ty - Config.FIN_DROP*ny)),
+        int[] rfy = new int[]{ (int)Math.round(v.w2sY(oy, bry)),
+                               (int)Math.round(v.w2sY(oy, bry + Config.FIN_LEN*ty - Config.FIN_DROP*ny)),
                                baseMidY };
         g2.setColor(new Color(200,220,255));
         g2.fillPolygon(lfx, lfy, 3); g2.fillPolygon(rfx, rfy, 3);
@@ -74,10 +79,10 @@ public final class DrawRocket {
 
         if (s.throttle > 0.02) {
             double flameLen = 5.0 * Config.BODY_H * s.throttle;
-            double tipx = s.rx - Math.sin(s.ang) * flameLen;
-            double tipy = s.ry - Math.cos(s.ang) * flameLen;
-            int[] fxp = new int[]{ (int)Math.round(v.w2sX(blx)), (int)Math.round(v.w2sX(brx)), (int)Math.round(v.w2sX(tipx)) };
-            int[] fyp = new int[]{ (int)Math.round(v.w2sY(bly)), (int)Math.round(v.w2sY(bry)), (int)Math.round(v.w2sY(tipy)) };
+            double tipx = rlx - Math.sin(s.ang) * flameLen;
+            double tipy = rly - Math.cos(s.ang) * flameLen;
+            int[] fxp = new int[]{ (int)Math.round(v.w2sX(ox, blx)), (int)Math.round(v.w2sX(ox, brx)), (int)Math.round(v.w2sX(ox, tipx)) };
+            int[] fyp = new int[]{ (int)Math.round(v.w2sY(oy, bly)), (int)Math.round(v.w2sY(oy, bry)), (int)Math.round(v.w2sY(oy, tipy)) };
             g2.setColor(new Color(255,170,60,220)); g2.fillPolygon(fxp, fyp, 3);
         }
     }
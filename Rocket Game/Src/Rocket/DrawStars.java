@@ -4,7 +4,13 @@ import java.awt.*; import java.util.Random;
 public final class DrawStars {
     private DrawStars(){}
     private static int cw=-1,ch=-1; private static int[] xs=new int[0], ys=new int[0], ss=new int[0];
+    // Screen-fixed, so the cached layer only changes with the viewport size
+    private static final Layer LAYER=new Layer(DrawStars::paint,false);
+    private static final double[] NO_ANCHORS=new double[0];
     public static void draw(Graphics2D g2, SimPanel v, Config c){
+        LAYER.draw(g2,v,null,null,NO_ANCHORS,0);
+    }
+    private static void paint(Graphics2D g2, SimPanel v, State s){
         int w=Math.max(1,v.getWidth()), h=Math.max(1,v.getHeight());
         if(w!=cw||h!=ch) regen(w,h);
         g2.setColor(new Color(Config.COL_STAR_ARGB,true));
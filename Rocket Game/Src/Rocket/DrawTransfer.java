@@ -0,0 +1,173 @@
+// File: src/rocket/DrawTransfer.java
+package rocket;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class DrawTransfer {
+    private DrawTransfer(){}
+
+    private static final Color ARC    = new Color(120, 255, 160, 200);
+    private static final Color MARK   = new Color(120, 255, 160, 240);
+    private static final Color FRAME  = new Color(255, 255, 255, 120);
+    private static final Font  FONT   = new Font(Config.LABEL_FONT_FAMILY, Font.PLAIN, Config.LABEL_FONT_SIZE);
+    private static final int   INSET_PX = 160;
+
+    private static final AtomicReference<Porkchop.Grid> LATEST = new AtomicReference<>();
+    private static final AtomicReference<State> CYCLE = new AtomicReference<>();   // L pressed, not yet handled
+    private static volatile Thread running;               // started by the drawing thread only
+    private static int target = -1;                       // drawing thread only
+
+    // Render caches (drawing thread only): the heat map per grid, the chosen transfer and its arc
+    private static Porkchop.Grid imgGrid;
+    private static BufferedImage img;
+    private static Porkchop.Transfer chosen;
+    private static int chosenRow = -1;
+    private static double[] arcX = new double[0], arcY = new double[0];
+
+    /**
+     * L key: plan a transfer from the body the rocket is at (climbing out of moons to the
+     * first body with siblings) to the next sibling, cycling through them and then off.
+     * Grids are computed on a background thread and cached per pair (see Porkchop).
+     *
+     * Called on the EDT; the press is handed to the drawing thread, which owns the target and
+     * starts every solve, and is picked up on the next frame.
+     */
+    public static void cycleTarget(State snap){ CYCLE.set(snap); }
+
+    private static void retarget(State snap){
+        Catalog cat = snap.catalog();
+        int from = departureBody(cat, snap.nearestBodyIdx(snap.rx, snap.ry));
+        target = (from < 0) ? -1 : nextSibling(cat, from, target);
+        if (target < 0) { LATEST.set(null); return; }
+        solve(cat, from, target, snap.simTimeSec);
+    }
+
+    /** The planned transfer's arc and end points, the porkchop inset and a summary line. */
+    public static void draw(Graphics2D g2, SimPanel v, State s){
+        final int h = v.getHeight();
+        State press = CYCLE.getAndSet(null);
+        if (press != null && running == null) retarget(press);
+        if (running != null) {
+            g2.setFont(FONT); g2.setColor(Color.WHITE);
+            g2.drawString("Transfer: solving porkchop...", 12, h - 56);
+        }
+        Porkchop.Grid g = LATEST.get();
+        if (g == null || g.catalog != s.catalog()) return;
+
+        // Keep half a synodic period of departures ahead; refresh (usually from the cache) when it runs low
+        final double now = s.simTimeSec;
+        if (running == null && now > g.depT0 + 0.5 * g.depStep * (g.nd - 1)) solve(g.catalog, g.from, g.to, now);
+
+        int row = (int) Math.ceil((now - g.depT0) / g.depStep);
+        if (chosen == null || chosen.grid != g || row != chosenRow) {
+            chosen = g.transfer(g.best(now));
+            chosenRow = row;
+            if (chosen != null) buildArc(chosen);
+        }
+        drawInset(g2, v, g, now);
+        if (chosen == null) {
+            g2.setFont(FONT); g2.setColor(Color.WHITE);
+            g2.drawString("Transfer " + s.bodies.get(g.from).name + " -> " + s.bodies.get(g.to).name + ": no window ahead", 12, h - 56);
+            return;
+        }
+
+        // Arc and end points are relative to the center; plot them around its current position
+        State.Body c = s.bodies.get(g.center);
+        Path2D.Double arc = new Path2D.Double(Path2D.WIND_NON_ZERO, arcX.length);
+        arc.moveTo(v.w2sX(c.cx, arcX[0]), v.w2sY(c.cy, arcY[0]));
+        for (int k = 1; k < arcX.length; k++) arc.lineTo(v.w2sX(c.cx, arcX[k]), v.w2sY(c.cy, arcY[k]));
+        g2.setColor(ARC);
+        g2.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 10f, new float[]{8f, 6f}, 0f));
+        g2.draw(arc);
+        g2.setStroke(new BasicStroke(1f));
+        g2.setColor(MARK);
+        marker(g2, v.w2sX(c.cx, chosen.x1), v.w2sY(c.cy, chosen.y1));
+        marker(g2, v.w2sX(c.cx, chosen.x2), v.w2sY(c.cy, chosen.y2));
+
+        g2.setFont(FONT); g2.setColor(Color.WHITE);
+        g2.drawString(String.format(Locale.ROOT, "Transfer %s -> %s: depart in %.1f d, flight %.1f d, dv %.0f + %.0f m/s (grid %.0f ms)",
+                s.bodies.get(g.from).name, s.bodies.get(g.to).name, (chosen.depT - now) / 86400.0, chosen.tof() / 86400.0,
+                chosen.dvDep, chosen.dvArr, g.wallSec * 1e3), 12, h - 56);
+    }
+
+    private static void solve(Catalog cat, int from, int to, double now){
+        Thread t = new Thread(() -> {
+            try { LATEST.set(Porkchop.grid(cat, from, to, now)); }
+            finally { running = null; }
+        }, "rocket-porkchop");
+        t.setDaemon(true);
+        running = t;
+        t.start();
+    }
+
+    /** Climb from b to the first body whose center has other children; -1 at a root. */
+    private static int departureBody(Catalog cat, int b){
+        while (b >= 0 && cat.parent[b] >= 0) {
+            if (cat.orbitMode[b] != 0 && cat.children(cat.parent[b]).length > 1) return b;
+            b = cat.parent[b];
+        }
+        return -1;
+    }
+
+    /** Sibling of from after prev in catalog order, or -1 after the last one. */
+    private static int nextSibling(Catalog cat, int from, int prev){
+        int[] sib = cat.children(cat.parent[from]);
+        boolean after = prev < 0 || cat.parent[prev] != cat.parent[from];
+        for (int b : sib) {
+            if (after && b != from && cat.orbitMode[b] != 0) return b;
+            if (b == prev) after = true;
+        }
+        return -1;
+    }
+
+    private static void buildArc(Porkchop.Transfer t){
+        final int n = Config.PORK_ARC_SAMPLES;
+        final double mu = t.grid.catalog.mu[t.grid.center];
+        final double[] out = new double[4];
+        arcX = new double[n + 1]; arcY = new double[n + 1];
+        for (int k = 0; k <= n; k++) {
+            Kepler.propagate(mu, t.x1, t.y1, t.vx1, t.vy1, t.tof() * k / n, out);
+            arcX[k] = out[0]; arcY[k] = out[1];
+        }
+    }
+
+    /** Total delta-v over departure (x) × arrival (y, up), now line and the chosen cell; bottom right. */
+    private static void drawInset(Graphics2D g2, SimPanel v, Porkchop.Grid g, double now){
+        if (imgGrid != g) { img = heatMap(g); imgGrid = g; }
+        final int x0 = v.getWidth() - Config.HUD_MARGIN - INSET_PX, y0 = v.getHeight() - 40 - INSET_PX;
+        g2.drawImage(img, x0, y0, INSET_PX, INSET_PX, null);
+        g2.setColor(FRAME);
+        g2.drawRect(x0, y0, INSET_PX, INSET_PX);
+        double u = (now - g.depT0) / (g.depStep * (g.nd - 1));
+        if (u >= 0.0 && u <= 1.0) { int lx = x0 + (int) Math.round(u * INSET_PX); g2.drawLine(lx, y0, lx, y0 + INSET_PX); }
+        if (chosen != null && chosen.grid == g) {
+            int i = chosen.cell / g.na, j = chosen.cell % g.na;
+            int cx = x0 + (int) Math.round((i + 0.5) * INSET_PX / g.nd), cy = y0 + INSET_PX - (int) Math.round((j + 0.5) * INSET_PX / g.na);
+            g2.setColor(Color.WHITE);
+            g2.drawLine(cx - 4, cy, cx + 4, cy); g2.drawLine(cx, cy - 4, cx, cy + 4);
+        }
+    }
+
+    /** Green at the cheapest transfer through red at 4× its delta-v; cells without a solution stay clear. */
+    private static BufferedImage heatMap(Porkchop.Grid g){
+        double min = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < g.nd * g.na; c++) { double t = g.total(c); if (t < min) min = t; }
+        BufferedImage im = new BufferedImage(g.nd, g.na, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < g.nd; i++) for (int j = 0; j < g.na; j++) {
+            double t = g.total(i * g.na + j);
+            if (!(t == t)) continue;
+            float q = (float) State.clamp(Math.log(t / min) / Math.log(4.0), 0.0, 1.0);
+            im.setRGB(i, g.na - 1 - j, (0xC0 << 24) | (Color.HSBtoRGB(0.33f * (1f - q), 0.9f, 1f - 0.5f * q) & 0xFFFFFF));
+        }
+        return im;
+    }
+
+    private static void marker(Graphics2D g2, double sx, double sy){
+        int x = (int) Math.round(sx), y = (int) Math.round(sy);
+        g2.drawOval(x - 5, y - 5, 10, 10);
+    }
+}
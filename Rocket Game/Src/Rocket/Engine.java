@@ -0,0 +1,115 @@
+// File: src/rocket/Engine.java
+package rocket;
+
+/**
+ * Headless simulation stepping: everything one tick does to a State, with no threads, timers or
+ * Swing. SimLoop drives it in real time for the window; Batch drives it as fast as the CPU
+ * allows from a scenario.
+ *
+ * Sim time is accumulated and consumed in fixed sub-steps of the integrator's liveDt (or on
+ * rails when the rocket coasts clear of the surface); the fleet then covers the same interval.
+ * Callers hold whatever lock guards the State.
+ */
+public final class Engine {
+  private final State s;
+  private final Physics.GravityField field = new Physics.GravityField();
+  private final Ephemeris railsEph = new Ephemeris();
+  private final double[] railsY = new double[4], railsOut = new double[4];
+  private double accSim = 0.0;  // simulated seconds waiting to be stepped
+  private double prevRx, prevRy, stepDt = 0.0, stepT = Double.NaN; // last sub-step, for interpolation
+  private double prevFrx, prevFry;                                  // ... and its body-relative start
+  private int prevFrame = -1;
+
+  public Engine(State s){ this.s = s; }
+
+  public State state(){ return s; }
+
+  /** One real-time tick: held-key inputs on real time, then dtReal × warp of sim time. */
+  public void tick(double dtReal){
+    if (s.paused) { accSim = 0.0; return; }
+
+    // Inputs & rotation run on real time so controls feel the same at any warp
+    if (s.upHeld)   s.throttle = Math.min(1.0, s.throttle + Config.THROTTLE_RATE * dtReal);
+    if (s.downHeld) s.throttle = Math.max(0.0, s.throttle - Config.THROTTLE_RATE * dtReal);
+    double turn = (s.leftHeld ? -1 : 0) + (s.rightHeld ? 1 : 0);
+    s.ang += Config.ANG_SPEED_RAD * turn * dtReal;
+    if (turn != 0 && s.thrusting()) s.predEpoch++;
+    if (s.thrusting() && s.timeScale > Config.TIME_SCALE_POWERED_MAX) s.timeScale = Config.TIME_SCALE_POWERED_MAX;
+
+    advance(dtReal * s.timeScale);
+  }
+
+  /**
+   * Add dtSim seconds to the accumulator and step as far as it reaches. Backlog beyond
+   * Config.SIM_MAX_SUBSTEPS sub-steps is dropped, as a stalled real-time loop should.
+   */
+  public void advance(double dtSim){
+    final double dt = s.integrator.liveDt();
+    accSim += dtSim;
+
+    // The rest of the fleet covers exactly the sim time the rocket consumed
+    final double tStart = s.simTimeSec;
+    advanceRocket(dt);
+    s.fleet.advance(s.bodies, s.integrator, tStart, s.simTimeSec - tStart, dt);
+  }
+
+  /**
+   * Step until simSec more seconds have passed (overshooting by less than one sub-step), never
+   * dropping backlog. Always makes progress, even for spans shorter than a sub-step.
+   */
+  public void runFor(double simSec){
+    final double tEnd = s.simTimeSec + simSec;
+    while (s.simTimeSec < tEnd) {
+      double dt = s.integrator.liveDt();
+      double need = Math.max(tEnd - s.simTimeSec - accSim, dt * 1.000001 - accSim);
+      advance(Math.max(0.0, Math.min(need, 0.5 * Config.SIM_MAX_SUBSTEPS * dt)));
+    }
+  }
+
+  /** Rocket and bodies: on rails if possible, otherwise fixed sub-steps from the accumulator. */
+  private void advanceRocket(double dt){
+    // Coasting clear of atmosphere/terrain: follow the Kepler conic exactly, at any warp
+    s.onRails = false;
+    if (accSim >= dt) {
+      double px = s.rx, py = s.ry;
+      double used = Physics.coastOnRails(s, railsEph, accSim, railsY, railsOut);
+      if (used > 0.0) {
+        s.onRails = true;
+        accSim -= used;
+        prevRx = px; prevRy = py; prevFrame = -1; stepDt = used; stepT = s.simTimeSec;
+        if (accSim < dt) return;
+      }
+    }
+    int n = (int) (accSim / dt);
+    if (n > Config.SIM_MAX_SUBSTEPS) { n = Config.SIM_MAX_SUBSTEPS; accSim = n * dt; }
+    for (int i = 0; i < n; i++) {
+      prevRx = s.rx; prevRy = s.ry;
+      prevFrame = s.frameCurrent() ? s.frame : -1; prevFrx = s.frx; prevFry = s.fry;
+      double t0 = s.simTimeSec;
+      s.advanceSimTimeBy(dt);
+      Physics.stepRocket(s, field, t0, dt);
+    }
+    accSim -= n * dt;
+    if (n > 0) { stepDt = dt; stepT = s.simTimeSec; }
+  }
+
+  /**
+   * Snapshot drawn one sub-step behind the simulation, blended by the accumulator remainder.
+   * Skipped when State was changed outside a step (reset) or nothing has been stepped yet.
+   * Blended relative to the frame body when the step stayed in one frame, so a landed rocket
+   * stays on the ground and the renderer gets the precise relative position.
+   */
+  public State interpolatedSnapshot(){
+    State snap = s.snapshot();
+    if (s.paused || stepDt <= 0.0 || s.simTimeSec != stepT) return snap;
+    double alpha = State.clamp(accSim / stepDt, 0.0, 1.0);
+    snap.rx = prevRx + (s.rx - prevRx) * alpha;
+    snap.ry = prevRy + (s.ry - prevRy) * alpha;
+    snap.simTimeSec = s.simTimeSec - stepDt * (1.0 - alpha);
+    snap.updateOrbits();
+    if (prevFrame >= 0 && prevFrame == s.frame && s.frameCurrent()) {
+      snap.setFrameState(s.frame, prevFrx + (s.frx - prevFrx) * alpha, prevFry + (s.fry - prevFry) * alpha, s.fvx, s.fvy);
+    }
+    return snap;
+  }
+}
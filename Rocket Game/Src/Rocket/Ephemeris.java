@@ -0,0 +1,111 @@
+// File: src/rocket/Ephemeris.java
+package rocket;
+
+import static java.lang.Math.*;
+
+/**
+ * On-rails positions and velocities of every body at one time T, evaluated in a single
+ * pass into primitive arrays (parents before children, one sin/cos per body).
+ * Re-evaluating at the same T is free, so the gravity sum, nearest-body search and
+ * collision test of a prediction step all share one evaluation.
+ *
+ * The arrays live in a BodyStore (x/y/vx/vy/mu/radius); the fields here alias them.
+ *
+ * Not thread-safe: each thread (sim, predictor, ...) owns its own instance.
+ */
+public final class Ephemeris {
+    public final int n;
+    public final Catalog catalog;
+    public final BodyStore store;
+    public final double[] x, y, vx, vy, mu, radius;
+
+    private final int[] order;        // body indices sorted so parents come before children
+    private double evalT = Double.NaN;
+
+    public Ephemeris(){ this(Catalog.current()); }
+
+    public Ephemeris(Catalog c){
+        catalog = c;
+        store = BodyStore.fromCatalog(c);
+        n = store.n;
+        x = store.x; y = store.y; vx = store.vx; vy = store.vy; mu = store.mu; radius = store.radius;
+        order = parentFirstOrder(c);
+    }
+
+    /** Time of the last evaluate() (NaN before the first). */
+    public double time(){ return evalT; }
+
+    /** Fill x/y/vx/vy for absolute sim time T. */
+    public void evaluate(double T){
+        if (T == evalT) return;
+        final Catalog cat = catalog;
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            int mode = cat.orbitMode[i], c = cat.parent[i];
+            if (mode == 0 || c < 0) {
+                x[i] = cat.cx[i]; y[i] = cat.cy[i]; vx[i] = 0.0; vy[i] = 0.0;
+            } else {
+                double A = cat.orbitA[i], B = cat.orbitB[i];
+                double w = cat.omega[i];
+                double th = cat.phase[i] + w * T;
+                double ct = cos(th), st = sin(th);
+                x[i]  = x[c]  + A * ct;
+                y[i]  = y[c]  + B * st;
+                vx[i] = vx[c] - A * w * st;
+                vy[i] = vy[c] + B * w * ct;
+            }
+        }
+        evalT = T;
+        store.touch();
+    }
+
+    /**
+     * State {x, y, vx, vy} of body i alone at time T, walking up its parents; leaves the arrays
+     * untouched, so it is cheap for one body at many times (event root finding).
+     */
+    public void stateAt(int i, double T, double[] out){
+        final Catalog cat = catalog;
+        double px = 0.0, py = 0.0, pvx = 0.0, pvy = 0.0;
+        for (int b = i; b >= 0; b = cat.parent[b]) {
+            if (cat.orbitMode[b] == 0 || cat.parent[b] < 0) { px += cat.cx[b]; py += cat.cy[b]; break; }
+            double A = cat.orbitA[b], B = cat.orbitB[b], w = cat.omega[b];
+            double th = cat.phase[b] + w * T, ct = cos(th), st = sin(th);
+            px += A * ct; py += B * st; pvx -= A * w * st; pvy += B * w * ct;
+        }
+        out[0] = px; out[1] = py; out[2] = pvx; out[3] = pvy;
+    }
+
+    /**
+     * Acceleration {ax, ay} of body i along its rails at the last evaluated time (what a frame
+     * riding on it feels): -omega^2 times its offset from its parent, summed up the chain.
+     */
+    public void accel(int i, double[] out){
+        final Catalog cat = catalog;
+        double ax = 0.0, ay = 0.0;
+        for (int b = i; b >= 0 && cat.orbitMode[b] != 0 && cat.parent[b] >= 0; b = cat.parent[b]) {
+            int c = cat.parent[b];
+            double w2 = cat.omega[b] * cat.omega[b];
+            ax -= w2 * (x[b] - x[c]); ay -= w2 * (y[b] - y[c]);
+        }
+        out[0] = ax; out[1] = ay;
+    }
+
+    /** Index of the body whose center is closest to (px,py) at the last evaluated time. */
+    public int nearest(double px, double py){
+        int best = 0; double bestD2 = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double dx = px - x[i], dy = py - y[i], d2 = dx*dx + dy*dy;
+            if (d2 < bestD2) { bestD2 = d2; best = i; }
+        }
+        return best;
+    }
+
+    /** Breadth-first from the roots, so every parent is evaluated before its children. */
+    private static int[] parentFirstOrder(Catalog cat){
+        int[] ord = new int[cat.n]; int k = 0;
+        for (int r : cat.roots()) ord[k++] = r;
+        for (int q = 0; q < k; q++) for (int c : cat.children(ord[q])) ord[k++] = c;
+        if (k != cat.n) throw new IllegalStateException("body catalog has a parent cycle");
+        return ord;
+    }
+}
@@ -0,0 +1,290 @@
+// File: src/rocket/Events.java
+package rocket;
+
+/**
+ * Continuous event detection inside one integration step: surface contact, atmosphere entry,
+ * sphere-of-influence change and periapsis/apoapsis passage. Checking only the end of a step
+ * lets a large step tunnel through terrain and puts an impact off by up to a whole step; here
+ * each event is a function of time along the step's path that changes sign at the event, and
+ * its root is bracketed and refined (Illinois regula falsi) to Config.EVENT_TIME_TOL.
+ *
+ * The path between two states is their cubic Hermite interpolant (hermite()), or anything else
+ * that can report a state at a time, such as an exact Kepler conic. Surface and atmosphere are
+ * sampled at Config.EVENT_SCAN_SAMPLES points inside the step so a dip below the ground and back
+ * is caught too, but only when a cheap bound says the path can get that low. Sphere-of-influence
+ * crossings (a child's sphere dipped into, or the current one left, and back) and apsides (when
+ * the step can sweep far enough around the body to pass one and come back) are sampled the same
+ * way, so a step that crosses twice still reports the first crossing. Body centers come
+ * from Ephemeris.stateAt at the exact time, so the ephemeris arrays are only evaluated at the
+ * step ends.
+ *
+ * The time found is the first one past the event (the far end of the final bracket), and a step
+ * that starts at an event's time does not report that event again, even if the state it restarts
+ * from (re-integrated, not interpolated) sits a hair on the other side. One instance per thread
+ * of stepping.
+ */
+public final class Events {
+
+    public enum Type {
+        SURFACE("Impact"), ATMOSPHERE("Atm"), SOI("SOI"), PERIAPSIS("Pe"), APOAPSIS("Ap");
+
+        public final String label;
+        public final int bit;
+
+        Type(String label){ this.label = label; this.bit = 1 << ordinal(); }
+    }
+
+    /** Every event type. */
+    public static final int ALL = (1 << Type.values().length) - 1;
+
+    /** A trajectory that can report its world-frame state {x, y, vx, vy} at any time in the step. */
+    public interface Path { void at(double t, double[] out); }
+
+    // Result of the last successful find()
+    public Type type;
+    public double t;
+    /** Body the event refers to (surface/atmosphere body, the body whose SOI was crossed, or the apsis body). */
+    public int body;
+    /** Path state at t. */
+    public final double[] state = new double[4];
+
+    private static final int G_SURFACE = 0, G_ATMOSPHERE = 1, G_SOI_IN = 2, G_SOI_OUT = 3, G_PERI = 4, G_APO = 5;
+
+    private final Hermite hermite = new Hermite();
+    private final double[] ps = new double[4], bs = new double[4];
+    private final int[] cand = new int[4];
+
+    // Set by ends(): the path's state relative to a body at both ends of the step, and bounds
+    // on its distance from that body over the step
+    private double ax, ay, avx, avy, bx, by, bvx, bvy, rMin, rMax;
+
+    private Ephemeris eph;
+    private Path path;
+
+    // Nearest/dominant body at the end of the last scanned step, reused when the next step starts there
+    private double memoT = Double.NaN, memoX, memoY;
+    private int memoNear, memoDom;
+
+    // The event last reported, not reported again from its own time
+    private double lastT = Double.NaN;
+    private Type lastType;
+    private int lastBody;
+
+    /** Forget the previous step and event (call when the state jumps, e.g. a new run). */
+    public void reset(){ memoT = Double.NaN; lastT = Double.NaN; }
+
+    /** The cubic Hermite path through (t0, y0) and (t1, y1); valid until the next call. */
+    public Path hermite(double t0, double[] y0, double t1, double[] y1){
+        hermite.set(t0, y0, t1, y1);
+        return hermite;
+    }
+
+    /**
+     * Look for the earliest event of the types in mask (Type.bit) along p in (t0, t1], where y0
+     * and y1 are p's states at the ends. Returns true and fills type/t/body/state if there is one.
+     * Leaves eph evaluated at t1.
+     */
+    public boolean find(Ephemeris eph, Path p, double t0, double[] y0, double t1, double[] y1, int mask){
+        if (!(t1 > t0)) return false;
+        this.eph = eph; this.path = p;
+        final Catalog cat = eph.catalog;
+        final boolean needDom = (mask & (Type.SOI.bit | Type.PERIAPSIS.bit | Type.APOAPSIS.bit)) != 0;
+
+        int near0, dom0;
+        if (memoT == t0 && memoX == y0[0] && memoY == y0[1]) { near0 = memoNear; dom0 = memoDom; }
+        else {
+            eph.evaluate(t0);
+            near0 = eph.nearest(y0[0], y0[1]);
+            dom0 = needDom ? Kepler.dominantBody(eph, y0[0], y0[1]) : near0;
+        }
+        eph.evaluate(t1);
+        int near1 = eph.nearest(y1[0], y1[1]);
+        int dom1 = needDom ? Kepler.dominantBody(eph, y1[0], y1[1]) : near1;
+        memoT = t1; memoX = y1[0]; memoY = y1[1]; memoNear = near1; memoDom = dom1;
+
+        double best = Double.POSITIVE_INFINITY;
+        Type bestType = null; int bestBody = -1;
+
+        // Surface and atmosphere of every body the step is near
+        int nc = candidate(near0, 0);
+        nc = candidate(near1, nc); nc = candidate(dom0, nc); nc = candidate(dom1, nc);
+        for (int k = 0; k < nc; k++) {
+            int b = cand[k];
+            if ((mask & Type.SURFACE.bit) != 0) {
+                double te = scan(G_SURFACE, b, cat.radius[b] + cat.terrain(b).maxElevation(), t0, y0, t1, y1);
+                if (te < best && fresh(Type.SURFACE, b, t0)) { best = te; bestType = Type.SURFACE; bestBody = b; }
+            }
+            if ((mask & Type.ATMOSPHERE.bit) != 0 && cat.atmThick[b] > 0.0) {
+                double te = scan(G_ATMOSPHERE, b, cat.radius[b] + cat.atmThick[b], t0, y0, t1, y1);
+                if (te < best && fresh(Type.ATMOSPHERE, b, t0)) { best = te; bestType = Type.ATMOSPHERE; bestBody = b; }
+            }
+        }
+
+        // Sphere of influence: into a child of the old dominant body, or out to the parent
+        if ((mask & Type.SOI.bit) != 0 && dom0 != dom1) {
+            double te = Double.POSITIVE_INFINITY; int b = -1;
+            if (cat.parent[dom1] == dom0)      { b = dom1; te = root(G_SOI_IN, b, t0, t1); }
+            else if (cat.parent[dom0] == dom1) { b = dom0; te = root(G_SOI_OUT, b, t0, t1); }
+            else                               { b = dom1; te = t1; }   // jumped across the tree: report at the end
+            if (te < best && fresh(Type.SOI, b, t0)) { best = te; bestType = Type.SOI; bestBody = b; }
+        } else if ((mask & Type.SOI.bit) != 0) {
+            // Same sphere at both ends, but the path may leave it or dip into a child's and come back
+            if (cat.parent[dom0] >= 0) {
+                double te = scan(G_SOI_OUT, dom0, cat.soi(dom0), t0, y0, t1, y1);
+                if (te < best && fresh(Type.SOI, dom0, t0)) { best = te; bestType = Type.SOI; bestBody = dom0; }
+            }
+            // Children worth a closer look: within reach of the path from the arrays at t1 (no trig)
+            final double h = t1 - t0;
+            final double vp = 1.5 * Math.max(Math.hypot(y0[2], y0[3]), Math.hypot(y1[2], y1[3]));
+            for (int c : cat.children(dom0)) {
+                double reach = h * (vp + 1.5 * Math.hypot(eph.vx[c], eph.vy[c]));
+                if (Math.hypot(y1[0] - eph.x[c], y1[1] - eph.y[c]) - reach > cat.soi(c)) continue;
+                double te = scan(G_SOI_IN, c, cat.soi(c), t0, y0, t1, y1);
+                if (te < best && fresh(Type.SOI, c, t0)) { best = te; bestType = Type.SOI; bestBody = c; }
+            }
+        }
+
+        // Apsides around the dominant body at the start: the radial velocity changes sign. The ends
+        // are enough unless the step can sweep far enough around the body (angular momentum over
+        // the smallest possible radius) to pass an apsis and come back; then it is sampled.
+        if ((mask & (Type.PERIAPSIS.bit | Type.APOAPSIS.bit)) != 0) {
+            ends(dom0, t0, y0, t1, y1);
+            double ga = ax * avx + ay * avy, g1 = bx * bvx + by * bvy;
+            double L = Math.max(Math.abs(ax * avy - ay * avx), Math.abs(bx * bvy - by * bvx));
+            double rLow = Math.max(rMin, 1e-3 * Math.hypot(ax, ay));
+            boolean sample = 1.5 * L * (t1 - t0) / (rLow * rLow) > 0.5 * Math.PI;
+            final int n = sample ? Config.EVENT_SCAN_SAMPLES : 1;
+            double ta = t0;
+            for (int i = 1; i <= n; i++) {
+                double tb = (i == n) ? t1 : t0 + (t1 - t0) * i / n, gb = (i == n) ? g1 : g(G_APO, dom0, tb);
+                Type at = (ga < 0.0 && gb >= 0.0) ? Type.PERIAPSIS : (ga > 0.0 && gb <= 0.0) ? Type.APOAPSIS : null;
+                if (at != null && (mask & at.bit) != 0) {
+                    double te = root(at == Type.PERIAPSIS ? G_PERI : G_APO, dom0, ta, tb);
+                    if (te < best && fresh(at, dom0, t0)) { best = te; bestType = at; bestBody = dom0; }
+                    break;
+                }
+                ta = tb; ga = gb;
+            }
+        }
+
+        eph.evaluate(t1);
+        if (bestType == null) return false;
+        type = bestType; t = best; body = bestBody;
+        lastType = bestType; lastT = best; lastBody = bestBody;
+        p.at(best, state);
+        return true;
+    }
+
+    /** Add body b to the first nc candidates unless it is already there; returns the new count. */
+    private int candidate(int b, int nc){
+        for (int k = 0; k < nc; k++) if (cand[k] == b) return nc;
+        cand[nc] = b;
+        return nc + 1;
+    }
+
+    /** False for the event that ended the previous step, seen again from its own time t0. */
+    private boolean fresh(Type type, int b, double t0){
+        return !(t0 == lastT && type == lastType && b == lastBody);
+    }
+
+    /**
+     * Relative end states of the step against body b, and bounds on the distance over it: the
+     * chord's nearest and farthest points, widened by how far a cubic Hermite can bow away from
+     * the chord (4/27 h |v - chord velocity|).
+     */
+    private void ends(int b, double t0, double[] y0, double t1, double[] y1){
+        final double h = t1 - t0;
+        eph.stateAt(b, t0, bs);
+        ax = y0[0] - bs[0]; ay = y0[1] - bs[1]; avx = y0[2] - bs[2]; avy = y0[3] - bs[3];
+        eph.stateAt(b, t1, bs);
+        bx = y1[0] - bs[0]; by = y1[1] - bs[1]; bvx = y1[2] - bs[2]; bvy = y1[3] - bs[3];
+        double cx = (bx - ax) / h, cy = (by - ay) / h;
+        double bow = 2.0 * (4.0 / 27.0) * h * (Math.hypot(avx - cx, avy - cy) + Math.hypot(bvx - cx, bvy - cy));
+        double ex = bx - ax, ey = by - ay, e2 = ex*ex + ey*ey;
+        double u = (e2 > 0.0) ? State.clamp(-(ax*ex + ay*ey) / e2, 0.0, 1.0) : 0.0;
+        rMin = Math.hypot(ax + u*ex, ay + u*ey) - bow;
+        rMax = Math.max(Math.hypot(ax, ay), Math.hypot(bx, by)) + bow;
+    }
+
+    /**
+     * First time in (t0, t1] at which the distance to body b crosses level (surface, atmosphere
+     * top or sphere of influence) the way kind watches for, or +Inf. Skipped outright when the
+     * path cannot reach level.
+     */
+    private double scan(int kind, int b, double level, double t0, double[] y0, double t1, double[] y1){
+        final double h = t1 - t0;
+        ends(b, t0, y0, t1, y1);
+        if (kind == G_SOI_OUT ? rMax < level : rMin > level) return Double.POSITIVE_INFINITY;
+
+        double ta = t0, ga = g(kind, b, t0);
+        if (ga <= 0.0) return Double.POSITIVE_INFINITY;        // already past level: not a crossing
+        final int n = Config.EVENT_SCAN_SAMPLES;
+        for (int i = 1; i <= n; i++) {
+            double tb = (i == n) ? t1 : t0 + h * i / n, gb = g(kind, b, tb);
+            if (gb <= 0.0) return illinois(kind, b, ta, ga, tb, gb);
+            ta = tb; ga = gb;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /** Root of a function known to go from > 0 at t0 to <= 0 at t1 (or +Inf if it does not). */
+    private double root(int kind, int b, double t0, double t1){
+        double g0 = g(kind, b, t0), g1 = g(kind, b, t1);
+        if (!(g0 > 0.0) || g1 > 0.0) return Double.POSITIVE_INFINITY;
+        return illinois(kind, b, t0, g0, t1, g1);
+    }
+
+    /** Regula falsi with the Illinois fix; returns the end of the final bracket past the root. */
+    private double illinois(int kind, int b, double a, double ga, double c, double gc){
+        int side = 0;
+        for (int it = 0; it < 60 && c - a > Config.EVENT_TIME_TOL; it++) {
+            double m = (a * gc - c * ga) / (gc - ga);
+            if (!(m > a && m < c)) m = 0.5 * (a + c);
+            double gm = g(kind, b, m);
+            if (gm > 0.0) { a = m; ga = gm; if (side == 1) gc *= 0.5; side = 1; }
+            else          { c = m; gc = gm; if (side == -1) ga *= 0.5; side = -1; }
+        }
+        return c;
+    }
+
+    /** Event function at time t: positive before the event, <= 0 once it has happened. */
+    private double g(int kind, int b, double t){
+        path.at(t, ps);
+        eph.stateAt(b, t, bs);
+        double rx = ps[0] - bs[0], ry = ps[1] - bs[1], r = Math.hypot(rx, ry);
+        final Catalog cat = eph.catalog;
+        switch (kind) {
+            case G_SURFACE: {
+                double th = Math.atan2(ry, rx);
+                if (th < 0) th += 2 * Math.PI;
+                return r - cat.radius[b] - cat.terrain(b).elevation(th);
+            }
+            case G_ATMOSPHERE: return r - cat.radius[b] - cat.atmThick[b];
+            case G_SOI_IN:     return r - cat.soi(b);
+            case G_SOI_OUT:    return cat.soi(b) - r;
+            case G_PERI:       return -(rx * (ps[2] - bs[2]) + ry * (ps[3] - bs[3]));
+            default:           return rx * (ps[2] - bs[2]) + ry * (ps[3] - bs[3]);   // G_APO
+        }
+    }
+
+    /** Cubic Hermite through two states (position and velocity at both ends). */
+    private static final class Hermite implements Path {
+        private double t0, h;
+        private final double[] a = new double[4], b = new double[4];
+
+        void set(double t0, double[] y0, double t1, double[] y1){
+            this.t0 = t0; this.h = t1 - t0;
+            System.arraycopy(y0, 0, a, 0, 4); System.arraycopy(y1, 0, b, 0, 4);
+        }
+
+        @Override public void at(double t, double[] out){
+            double u = State.clamp((t - t0) / h, 0.0, 1.0), u2 = u * u, u3 = u2 * u;
+            double h00 = 2*u3 - 3*u2 + 1, h10 = u3 - 2*u2 + u, h01 = -2*u3 + 3*u2, h11 = u3 - u2;
+            double d00 = 6*u2 - 6*u, d10 = 3*u2 - 4*u + 1, d01 = -6*u2 + 6*u, d11 = 3*u2 - 2*u;
+            out[0] = h00 * a[0] + h10 * h * a[2] + h01 * b[0] + h11 * h * b[2];
+            out[1] = h00 * a[1] + h10 * h * a[3] + h01 * b[1] + h11 * h * b[3];
+            out[2] = (d00 * a[0] + d01 * b[0]) / h + d10 * a[2] + d11 * b[2];
+            out[3] = (d00 * a[1] + d01 * b[1]) / h + d10 * a[3] + d11 * b[3];
+        }
+    }
+}
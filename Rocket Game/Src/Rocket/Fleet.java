@@ -0,0 +1,205 @@
+// File: src/rocket/Fleet.java
+package rocket;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Unpowered vessels flying alongside the rocket (released satellites, spent stages, debris),
+ * held in parallel primitive arrays. Each sim tick the sim thread advances them over the same
+ * interval as the rocket: on rails when the conic is clear of the surface, otherwise in fixed
+ * sub-steps of the selected integrator.
+ *
+ * Vessels are split into chunks of Config.FLEET_CHUNK and the chunks are stepped in parallel on
+ * the common fork/join pool. Every chunk has its own Worker (gravity field, ephemerides, scratch),
+ * so the workers share nothing but the read-only catalog and bodies.
+ *
+ * Within a chunk the numeric vessels are stepped sub-step by sub-step rather than one vessel at a
+ * time: every vessel then asks for the same stage times, and the worker's field keeps one
+ * ephemeris per stage time, so the bodies are placed (and a large catalog's Barnes–Hut tree
+ * built) once per stage for the whole chunk instead of once per vessel.
+ *
+ * A vessel that touches the ground is marked landed and rides along with that body.
+ */
+public final class Fleet {
+    public static final byte FLYING = 0, LANDED = 1;
+
+    public int n = 0;
+    public double[] x, y, vx, vy;
+    public byte[] status;
+    /** For landed vessels: body index and offset from its center. */
+    public int[] host;
+    public double[] hostDx, hostDy;
+
+    private Worker[] workers = new Worker[0];
+
+    public Fleet(){ this(16); }
+
+    private Fleet(int cap){
+        x = new double[cap]; y = new double[cap]; vx = new double[cap]; vy = new double[cap];
+        status = new byte[cap]; host = new int[cap]; hostDx = new double[cap]; hostDy = new double[cap];
+    }
+
+    /** Copy for State.snapshot(); workers are not shared. */
+    public Fleet copy(){
+        Fleet f = new Fleet(Math.max(1, n));
+        f.n = n;
+        System.arraycopy(x, 0, f.x, 0, n); System.arraycopy(y, 0, f.y, 0, n);
+        System.arraycopy(vx, 0, f.vx, 0, n); System.arraycopy(vy, 0, f.vy, 0, n);
+        System.arraycopy(status, 0, f.status, 0, n); System.arraycopy(host, 0, f.host, 0, n);
+        System.arraycopy(hostDx, 0, f.hostDx, 0, n); System.arraycopy(hostDy, 0, f.hostDy, 0, n);
+        return f;
+    }
+
+    /** Add a free-flying vessel; returns its index. */
+    public int add(double px, double py, double pvx, double pvy){
+        if (n == x.length) grow(2 * n);
+        int i = n++;
+        x[i] = px; y[i] = py; vx[i] = pvx; vy[i] = pvy;
+        status[i] = FLYING; host[i] = -1;
+        return i;
+    }
+
+    public void clear(){ n = 0; }
+
+    /** Set the vessel count, growing the arrays if needed; callers fill the new slots (see Snapshot). */
+    public void resize(int count){
+        if (count > x.length) grow(count);
+        n = count;
+    }
+
+    public int landedCount(){
+        int k = 0;
+        for (int i = 0; i < n; i++) if (status[i] == LANDED) k++;
+        return k;
+    }
+
+    private void grow(int cap){
+        x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap); vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap);
+        status = Arrays.copyOf(status, cap); host = Arrays.copyOf(host, cap);
+        hostDx = Arrays.copyOf(hostDx, cap); hostDy = Arrays.copyOf(hostDy, cap);
+    }
+
+    /**
+     * Advance every vessel from sim time t0 by span seconds, numerically in steps of at most dt
+     * where on-rails coasting is not possible. bodies supplies names and terrain for collisions.
+     */
+    public void advance(List<State.Body> bodies, Integrator integ, double t0, double span, double dt){
+        if (n == 0 || span <= 0.0) return;
+        final int chunk = Config.FLEET_CHUNK;
+        final int chunks = (n + chunk - 1) / chunk;
+        if (workers.length < chunks) {
+            int old = workers.length;
+            workers = Arrays.copyOf(workers, chunks);
+            for (int c = old; c < chunks; c++) workers[c] = new Worker();
+        }
+        if (chunks == 1) { workers[0].run(this, bodies, integ, 0, n, t0, span, dt); return; }
+        IntStream.range(0, chunks).parallel().forEach(c ->
+            workers[c].run(this, bodies, integ, c * chunk, Math.min(n, (c + 1) * chunk), t0, span, dt));
+    }
+
+    /** Per-chunk state; only ever used by one fork/join task at a time. */
+    private static final class Worker {
+        final StageField field = new StageField();
+        final Ephemeris rails = new Ephemeris();
+        final double[] st = new double[4], out = new double[4], y = new double[4];
+        // Vessels stepped together from t0: indices and step-size hints (adaptive integrators)
+        int[] batch = new int[Config.FLEET_CHUNK];
+        double[] hint = new double[Config.FLEET_CHUNK];
+
+        void run(Fleet f, List<State.Body> bodies, Integrator integ, int from, int to, double t0, double span, double dt){
+            if (batch.length < to - from) { batch = new int[to - from]; hint = new double[to - from]; }
+            // Same sub-step cap as the rocket, but stretch the step instead of dropping time
+            final int steps = (int) Math.min(Math.ceil(span / dt), Config.SIM_MAX_SUBSTEPS);
+            int nb = 0;
+            for (int i = from; i < to; i++) {
+                if (f.status[i] == LANDED) {
+                    Ephemeris eph = field.at(t0 + span);
+                    int h = f.host[i];
+                    f.x[i] = eph.x[h] + f.hostDx[i]; f.y[i] = eph.y[h] + f.hostDy[i];
+                    f.vx[i] = eph.vx[h]; f.vy[i] = eph.vy[h];
+                    continue;
+                }
+                st[0] = f.x[i]; st[1] = f.y[i]; st[2] = f.vx[i]; st[3] = f.vy[i];
+                double used = Physics.coast(rails, t0, span, st, out);
+                f.x[i] = st[0]; f.y[i] = st[1]; f.vx[i] = st[2]; f.vy[i] = st[3];
+                if (used == 0.0) { batch[nb] = i; hint[nb] = 0.0; nb++; }
+                else if (span - used > 1e-9) stepAlone(f, i, bodies, integ, t0 + used, span - used, dt);
+            }
+
+            // Sub-step by sub-step across the batch; a vessel that lands drops out of it
+            final double h = span / steps;
+            for (int k = 0; k < steps && nb > 0; k++) {
+                final double t = t0 + k * h;
+                for (int j = 0; j < nb; ) {
+                    int i = batch[j];
+                    y[0] = f.x[i]; y[1] = f.y[i]; y[2] = f.vx[i]; y[3] = f.vy[i];
+                    field.hNext = hint[j];
+                    integ.step(field, y, t, h);
+                    hint[j] = field.hNext;
+                    if (touchdown(f, i, bodies, field.at(t + h), y)) { nb--; batch[j] = batch[nb]; hint[j] = hint[nb]; continue; }
+                    f.x[i] = y[0]; f.y[i] = y[1]; f.vx[i] = y[2]; f.vy[i] = y[3];
+                    j++;
+                }
+            }
+        }
+
+        /** Numeric steps for a vessel that coasted part of the span and so starts at its own time t. */
+        private void stepAlone(Fleet f, int i, List<State.Body> bodies, Integrator integ, double t, double left, double dt){
+            int steps = (int) Math.min(Math.ceil(left / dt), Config.SIM_MAX_SUBSTEPS);
+            double h = left / steps;
+            y[0] = f.x[i]; y[1] = f.y[i]; y[2] = f.vx[i]; y[3] = f.vy[i];
+            field.hNext = 0.0;
+            for (int k = 0; k < steps; k++) {
+                integ.step(field, y, t, h);
+                t += h;
+                if (touchdown(f, i, bodies, field.at(t), y)) return;
+            }
+            f.x[i] = y[0]; f.y[i] = y[1]; f.vx[i] = y[2]; f.vy[i] = y[3];
+        }
+
+        /** Ground contact (eph evaluated at the contact time): pin the vessel to the surface of that body. */
+        private static boolean touchdown(Fleet f, int i, List<State.Body> bodies, Ephemeris eph, double[] y){
+            int b = eph.nearest(y[0], y[1]);
+            double dx = y[0] - eph.x[b], dy = y[1] - eph.y[b], r = Math.hypot(dx, dy);
+            double surfR = Physics.surfaceRadiusAtAtTime(bodies.get(b), eph.x[b], eph.y[b], y[0], y[1]);
+            if (r >= surfR) return false;
+            double k = surfR / Math.max(r, 1e-6);
+            f.status[i] = LANDED; f.host[i] = b;
+            f.hostDx[i] = dx * k; f.hostDy[i] = dy * k;
+            f.x[i] = eph.x[b] + f.hostDx[i]; f.y[i] = eph.y[b] + f.hostDy[i];
+            f.vx[i] = eph.vx[b]; f.vy[i] = eph.vy[b];
+            return true;
+        }
+    }
+
+    /**
+     * Gravity only (vessels have no engines), with one ephemeris per recent evaluation time. A
+     * sub-step of a fixed-step integrator, or a Dormand–Prince attempt over the whole sub-step,
+     * asks every vessel for the same few stage times; each is evaluated once per chunk and the
+     * rest are hits, which keeps a large catalog's tree (BodyStore.tree) to one build per stage.
+     */
+    private static final class StageField extends Integrator.Field {
+        private static final int SLOTS = 8;   // Dormand–Prince has six distinct stage times
+        private final Ephemeris[] slot = new Ephemeris[SLOTS];
+        private final double[] g = new double[2];
+        private int last = 0, victim = 0;
+
+        StageField(){ for (int k = 0; k < SLOTS; k++) slot[k] = new Ephemeris(); }
+
+        /** Ephemeris evaluated at t, reusing a slot that already is. */
+        Ephemeris at(double t){
+            if (slot[last].time() == t) return slot[last];
+            for (int k = 0; k < SLOTS; k++) if (slot[k].time() == t) return slot[last = k];
+            last = victim; victim = (victim + 1) % SLOTS;
+            slot[last].evaluate(t);
+            return slot[last];
+        }
+
+        @Override protected void eval(double t, double x, double y){
+            Gravity.accel(at(t).store, x, y, g);
+            ax = g[0]; ay = g[1];
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// File: src/rocket/FlightRecorder.java
+package rocket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Flight recorder: appends one fixed-size record per sim tick (time, position, velocity,
+ * attitude, throttle, fuel) to a memory-mapped log for post-mortems and {@link FlightReplay}.
+ *
+ * Layout (little-endian): a HEADER_BYTES header {magic, version, record bytes, keyframe
+ * interval, record count}, then RECORD_BYTES per record as 8 doubles in FIELD_* order. Every
+ * Config.REC_KEYFRAME_EVERY-th record is a keyframe; readers index only those, so a seek is a
+ * search over the keyframe times plus a scan of at most one interval. The file grows in mapped
+ * chunks of Config.REC_CHUNK_RECORDS records and the header count is written after each record,
+ * so a log cut short by a crash is still readable.
+ *
+ * Each flight gets its own file; a new one starts whenever sim time runs backwards (reset).
+ * Only the newest Config.REC_KEEP_FLIGHTS logs in the directory are kept: starting a flight
+ * deletes the older ones. Owned by the simulation thread.
+ */
+public final class FlightRecorder implements Closeable {
+    static final int MAGIC = 0x43455246;   // "FREC" little-endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64, RECORD_BYTES = 64, COUNT_OFFSET = 16;
+    static final int FIELD_T = 0, FIELD_X = 1, FIELD_Y = 2, FIELD_VX = 3, FIELD_VY = 4,
+                     FIELD_ANG = 5, FIELD_THROTTLE = 6, FIELD_FUEL = 7;
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path dir;
+    private FileChannel ch;
+    private ByteBuffer header, chunk;
+    private Path file;
+    private long count = 0;
+    private double lastT = Double.NaN;
+
+    public FlightRecorder(Path dir){ this.dir = dir; }
+
+    /** File of the current (or last) flight, or null before the first record. */
+    public Path file(){ return file; }
+
+    /** Records written to the current flight. */
+    public long count(){ return count; }
+
+    /** Append the state's current tick. Ticks that did not move sim time (paused) are skipped. */
+    public void record(State s) throws IOException {
+        final double t = s.simTimeSec;
+        if (t == lastT) return;
+        if (ch == null || t < lastT) begin();
+
+        final int slot = (int) (count % Config.REC_CHUNK_RECORDS);
+        if (slot == 0) {
+            long off = HEADER_BYTES + count * RECORD_BYTES;
+            chunk = ch.map(FileChannel.MapMode.READ_WRITE, off, (long) Config.REC_CHUNK_RECORDS * RECORD_BYTES)
+                      .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        final int p = slot * RECORD_BYTES;
+        chunk.putDouble(p + 8 * FIELD_T, t)
+             .putDouble(p + 8 * FIELD_X, s.rx).putDouble(p + 8 * FIELD_Y, s.ry)
+             .putDouble(p + 8 * FIELD_VX, s.vx).putDouble(p + 8 * FIELD_VY, s.vy)
+             .putDouble(p + 8 * FIELD_ANG, s.ang)
+             .putDouble(p + 8 * FIELD_THROTTLE, s.throttle)
+             .putDouble(p + 8 * FIELD_FUEL, s.fuelSec);
+        count++;
+        header.putLong(COUNT_OFFSET, count);
+        lastT = t;
+    }
+
+    /** Finish the current flight; the next record starts a new file. */
+    @Override public void close() throws IOException {
+        if (ch == null) return;
+        header = null; chunk = null;
+        try {
+            // Drop the unused tail of the last chunk (best effort: some platforms refuse while it is still mapped)
+            ch.truncate(HEADER_BYTES + count * RECORD_BYTES);
+        } catch (IOException ignored) {
+        } finally {
+            ch.close();
+            ch = null;
+            lastT = Double.NaN;
+        }
+    }
+
+    private void begin() throws IOException {
+        close();
+        Files.createDirectories(dir);
+        file = dir.resolve("flight-" + LocalDateTime.now().format(STAMP) + ".rrec");
+        ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD_BYTES).putInt(12, Config.REC_KEYFRAME_EVERY)
+              .putLong(COUNT_OFFSET, 0L);
+        count = 0;
+        prune();
+    }
+
+    /** Delete all but the newest REC_KEEP_FLIGHTS logs (names sort by start time); best effort. */
+    private void prune(){
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "flight-*.rrec")) {
+            for (Path p : ds) logs.add(p);
+        } catch (IOException e) {
+            return;
+        }
+        Collections.sort(logs);
+        for (int i = 0; i < logs.size() - Config.REC_KEEP_FLIGHTS; i++) {
+            try { Files.deleteIfExists(logs.get(i)); } catch (IOException ignored) {}
+        }
+    }
+}
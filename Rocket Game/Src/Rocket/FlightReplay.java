@@ -0,0 +1,157 @@
+// File: src/rocket/FlightReplay.java
+package rocket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import static rocket.FlightRecorder.*;
+
+/**
+ * Plays back a {@link FlightRecorder} log without re-simulating: the log is memory-mapped
+ * read-only, seek() finds the record pair around any time through the keyframe index, and
+ * apply() writes the state between them into a State (cubic Hermite on position/velocity,
+ * linear on the rest; bodies come from the ephemeris at that time). Playback at any speed is
+ * advance() by dtReal × warp.
+ *
+ * {@code java rocket.FlightReplay flight.rrec [step_s]} dumps a log as CSV.
+ */
+public final class FlightReplay implements Closeable {
+    public final Path file;
+    /** Number of records. */
+    public final long n;
+
+    private final FileChannel ch;
+    private final ByteBuffer[] chunks;
+    private final int kfEvery;
+    private final double[] kfT;     // time of every keyframe record (index k -> record k * kfEvery)
+
+    private double t;               // playback cursor (sim time)
+    private long cur = 0;           // last record at or before t
+
+    private FlightReplay(Path file, FileChannel ch) throws IOException {
+        this.file = file; this.ch = ch;
+        ByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(ch.size(), HEADER_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        if (h.limit() < HEADER_BYTES || h.getInt(0) != MAGIC) throw new IOException(file + ": not a flight log");
+        if (h.getInt(4) != VERSION) throw new IOException(file + ": unsupported flight log version " + h.getInt(4));
+        if (h.getInt(8) != RECORD_BYTES) throw new IOException(file + ": unexpected record size " + h.getInt(8));
+        kfEvery = Math.max(1, h.getInt(12));
+        n = Math.min(h.getLong(COUNT_OFFSET), (ch.size() - HEADER_BYTES) / RECORD_BYTES);
+        if (n < 1) throw new IOException(file + ": flight log is empty");
+
+        final long chunkRecs = Config.REC_CHUNK_RECORDS;
+        chunks = new ByteBuffer[(int) ((n + chunkRecs - 1) / chunkRecs)];
+        for (int c = 0; c < chunks.length; c++) {
+            long first = c * chunkRecs, recs = Math.min(chunkRecs, n - first);
+            chunks[c] = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * RECORD_BYTES, recs * RECORD_BYTES)
+                          .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        kfT = new double[(int) ((n + kfEvery - 1) / kfEvery)];
+        for (int k = 0; k < kfT.length; k++) kfT[k] = get((long) k * kfEvery, FIELD_T);
+        t = startTime();
+    }
+
+    public static FlightReplay open(Path p) throws IOException {
+        FileChannel ch = FileChannel.open(p, StandardOpenOption.READ);
+        try {
+            return new FlightReplay(p, ch);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public double startTime(){ return get(0, FIELD_T); }
+    public double endTime(){ return get(n - 1, FIELD_T); }
+    /** Current playback time. */
+    public double time(){ return t; }
+
+    /** Move the cursor to sim time T (clamped to the recording). */
+    public void seek(double T){
+        t = State.clamp(T, startTime(), endTime());
+        int lo = 0, hi = kfT.length - 1;           // last keyframe at or before t
+        while (lo < hi) { int mid = (lo + hi + 1) >>> 1; if (kfT[mid] <= t) lo = mid; else hi = mid - 1; }
+        cur = (long) lo * kfEvery;
+        scanForward();
+    }
+
+    /** Play dtSim seconds (negative plays backwards); returns false once either end is reached. */
+    public boolean advance(double dtSim){
+        if (dtSim < 0.0) { seek(t + dtSim); return t > startTime(); }
+        t = Math.min(t + dtSim, endTime());
+        scanForward();
+        return t < endTime();
+    }
+
+    /** Write the recorded state at the cursor into s (rocket, fuel, sim time and bodies). */
+    public void apply(State s){
+        long i = cur, j = Math.min(cur + 1, n - 1);
+        double t0 = get(i, FIELD_T), t1 = get(j, FIELD_T), h = t1 - t0;
+        double u = (h > 0.0) ? State.clamp((t - t0) / h, 0.0, 1.0) : 0.0;
+
+        // Cubic Hermite basis and its derivative (per unit u)
+        double u2 = u * u, u3 = u2 * u;
+        double h00 = 2*u3 - 3*u2 + 1, h10 = u3 - 2*u2 + u, h01 = -2*u3 + 3*u2, h11 = u3 - u2;
+        double d00 = 6*u2 - 6*u, d10 = 3*u2 - 4*u + 1, d01 = -6*u2 + 6*u, d11 = 3*u2 - 2*u;
+        double x0 = get(i, FIELD_X), y0 = get(i, FIELD_Y), vx0 = get(i, FIELD_VX), vy0 = get(i, FIELD_VY);
+        double x1 = get(j, FIELD_X), y1 = get(j, FIELD_Y), vx1 = get(j, FIELD_VX), vy1 = get(j, FIELD_VY);
+        if (h > 0.0) {
+            s.rx = h00 * x0 + h10 * h * vx0 + h01 * x1 + h11 * h * vx1;
+            s.ry = h00 * y0 + h10 * h * vy0 + h01 * y1 + h11 * h * vy1;
+            s.vx = (d00 * x0 + d01 * x1) / h + d10 * vx0 + d11 * vx1;
+            s.vy = (d00 * y0 + d01 * y1) / h + d10 * vy0 + d11 * vy1;
+        } else {
+            s.rx = x0; s.ry = y0; s.vx = vx0; s.vy = vy0;
+        }
+        s.ang = lerp(get(i, FIELD_ANG), get(j, FIELD_ANG), u);
+        s.throttle = lerp(get(i, FIELD_THROTTLE), get(j, FIELD_THROTTLE), u);
+        s.fuelSec = lerp(get(i, FIELD_FUEL), get(j, FIELD_FUEL), u);
+        s.simTimeSec = t; s.onRails = false;
+        s.updateOrbits();
+        if (s.thrusting()) s.predEpoch++;
+    }
+
+    @Override public void close() throws IOException { ch.close(); }
+
+    private void scanForward(){
+        while (cur + 1 < n && get(cur + 1, FIELD_T) <= t) cur++;
+    }
+
+    private double get(long rec, int field){
+        ByteBuffer b = chunks[(int) (rec / Config.REC_CHUNK_RECORDS)];
+        return b.getDouble((int) (rec % Config.REC_CHUNK_RECORDS) * RECORD_BYTES + 8 * field);
+    }
+
+    private static double lerp(double a, double b, double u){ return a + (b - a) * u; }
+
+    /** Dump a log as CSV: {@code java rocket.FlightReplay flight.rrec [step_s]} (default: every record). */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) { System.err.println("usage: java rocket.FlightReplay <flight.rrec> [step_s]"); System.exit(2); }
+        try (FlightReplay r = open(Paths.get(args[0]))) {
+            System.out.println("t,x,y,vx,vy,angle_deg,throttle,fuel_s");
+            if (args.length == 1) {
+                for (long i = 0; i < r.n; i++) row(r.get(i, FIELD_T), r.get(i, FIELD_X), r.get(i, FIELD_Y), r.get(i, FIELD_VX),
+                        r.get(i, FIELD_VY), r.get(i, FIELD_ANG), r.get(i, FIELD_THROTTLE), r.get(i, FIELD_FUEL));
+                return;
+            }
+            double step = Double.parseDouble(args[1]);
+            if (!(step > 0.0)) throw new IllegalArgumentException("step must be > 0");
+            State s = new State();
+            for (double T = r.startTime(); T <= r.endTime(); T += step) {
+                r.seek(T); r.apply(s);
+                row(s.simTimeSec, s.rx, s.ry, s.vx, s.vy, s.ang, s.throttle, s.fuelSec);
+            }
+        }
+    }
+
+    private static void row(double t, double x, double y, double vx, double vy, double ang, double thr, double fuel){
+        System.out.println(String.format(Locale.ROOT, "%.3f,%.3f,%.3f,%.6f,%.6f,%.4f,%.4f,%.3f",
+                t, x, y, vx, vy, Math.toDegrees(ang), thr, fuel));
+    }
+}
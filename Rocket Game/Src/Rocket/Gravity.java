@@ -0,0 +1,34 @@
+// File: src/rocket/Gravity.java
+package rocket;
+
+/**
+ * The one gravity kernel used by the live step, the predictor and the HUD.
+ *
+ * The loop is written over the BodyStore's primitive arrays with a branch-free softening test
+ * so C2 can unroll and vectorize it; bodies closer than 1 m contribute nothing, as before.
+ * Stores with at least Config.BH_MIN_BODIES bodies go through their Barnes–Hut tree instead.
+ */
+public final class Gravity {
+    private Gravity(){}
+
+    /** Net gravitational acceleration at (px,py) from every body in b; writes {ax, ay} into out. */
+    public static void accel(BodyStore b, double px, double py, double[] out){
+        if (b.n >= Config.BH_MIN_BODIES) { b.tree().accel(px, py, out); return; }
+        direct(b, px, py, out);
+    }
+
+    /** Exact O(N) sum. */
+    public static void direct(BodyStore b, double px, double py, double[] out){
+        final double[] bx = b.x, by = b.y, mu = b.mu;
+        final int n = b.n;
+        double ax = 0.0, ay = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dx = px - bx[i], dy = py - by[i];
+            double r2 = dx*dx + dy*dy;
+            double k = (r2 > 1.0) ? -mu[i] / (r2 * Math.sqrt(r2)) : 0.0;
+            ax += k * dx;
+            ay += k * dy;
+        }
+        out[0] = ax; out[1] = ay;
+    }
+}
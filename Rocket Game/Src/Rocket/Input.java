@@ -9,6 +9,8 @@ public class Input implements KeyListener, MouseWheelListener, MouseListener, Mo
   private final SimPanel v;
   private final State s;
   private Point lastDrag = null;
+  private final java.util.Random rnd = new java.util.Random();
+  private final java.nio.file.Path quickSave = java.nio.file.Paths.get(System.getProperty("rocket.quicksave", Config.QUICKSAVE_FILE));
 
   // Track whether we're currently following a body (planet/sun/moon).
   private boolean followingBody = false;
@@ -17,68 +19,144 @@ public class Input implements KeyListener, MouseWheelListener, MouseListener, Mo
 
   // ---------- Keys ----------
   @Override public void keyPressed(KeyEvent e){
-    switch(e.getKeyCode()){
-      case KeyEvent.VK_UP:
-      case KeyEvent.VK_W: s.upHeld=true; break;
-      case KeyEvent.VK_DOWN:
-      case KeyEvent.VK_S: s.downHeld=true; break;
-      case KeyEvent.VK_LEFT:
-      case KeyEvent.VK_A: s.leftHeld=true; break;
-      case KeyEvent.VK_RIGHT:
-      case KeyEvent.VK_D: s.rightHeld=true; break;
-
-      case KeyEvent.VK_SPACE: s.paused=!s.paused; break;
-
-      case KeyEvent.VK_R:
-        s.reset();
-        v.snapCameraToRocket();
-        s.followRocket=true;
-        v.clearFollowBody();
-        followingBody=false;
-        break;
-
-      case KeyEvent.VK_OPEN_BRACKET:  s.nudgePredHorizon(e.isShiftDown()? -300 : -30); break;
-      case KeyEvent.VK_CLOSE_BRACKET: s.nudgePredHorizon(e.isShiftDown()?  300 :  30); break;
-      case KeyEvent.VK_MINUS:  s.scaleTime(0.5); break;
-      case KeyEvent.VK_EQUALS: s.scaleTime(2.0); break;
-      case KeyEvent.VK_0: s.throttle=0.0; break;
-      case KeyEvent.VK_1: s.throttle=1.0; break;
-
-      // F behavior:
-      // - If in Planet Follow -> switch to FreeCam
-      // - If in FreeCam      -> switch to Rocket Follow
-      // - If in Rocket Follow-> switch to FreeCam
-      case KeyEvent.VK_F:
-        if (followingBody) {
-          // Planet Follow -> FreeCam
-          followingBody = false;
-          s.followRocket = false;
-          v.clearFollowBody();
-          // leave camera where it is
-        } else if (!s.followRocket) {
-          // FreeCam -> Rocket Follow
-          s.followRocket = true;
-          v.clearFollowBody();
+    synchronized (s) { // sim thread steps under the same lock
+      switch(e.getKeyCode()){
+        case KeyEvent.VK_UP:
+        case KeyEvent.VK_W: s.upHeld=true; break;
+        case KeyEvent.VK_DOWN:
+        case KeyEvent.VK_S: s.downHeld=true; break;
+        case KeyEvent.VK_LEFT:
+        case KeyEvent.VK_A: s.leftHeld=true; break;
+        case KeyEvent.VK_RIGHT:
+        case KeyEvent.VK_D: s.rightHeld=true; break;
+
+        case KeyEvent.VK_SPACE: s.paused=!s.paused; break;
+
+        case KeyEvent.VK_R:
+          v.stopReplay();
+          s.reset();
           v.snapCameraToRocket();
-        } else {
-          // Rocket Follow -> FreeCam
-          s.followRocket = false;
+          s.followRocket=true;
           v.clearFollowBody();
-        }
-        break;
+          followingBody=false;
+          break;
+
+        case KeyEvent.VK_OPEN_BRACKET:
+          if (s.predMode == PredictionMode.CONIC) s.scalePredHorizon(e.isShiftDown()? 0.25 : 0.8);
+          else s.nudgePredHorizon(e.isShiftDown()? -300 : -30);
+          break;
+        case KeyEvent.VK_CLOSE_BRACKET:
+          if (s.predMode == PredictionMode.CONIC) s.scalePredHorizon(e.isShiftDown()? 4.0 : 1.25);
+          else s.nudgePredHorizon(e.isShiftDown()?  300 :  30);
+          break;
+        case KeyEvent.VK_MINUS:  s.scaleTime(0.5); break;
+        case KeyEvent.VK_EQUALS: s.scaleTime(2.0); break;
+        case KeyEvent.VK_0: s.throttle=0.0; break;
+        case KeyEvent.VK_1: s.throttle=1.0; break;
+        case KeyEvent.VK_I: s.integrator=s.integrator.next(); break;
+        case KeyEvent.VK_P: s.cyclePredMode(); break;
+        case KeyEvent.VK_V:
+          if (e.isShiftDown()) s.spawnVessels(Config.FLEET_DEBRIS_COUNT, Config.FLEET_DEBRIS_SPREAD_MPS, rnd);
+          else s.spawnVessels(1, 0.0, rnd);
+          break;
+
+        case KeyEvent.VK_K: v.toggleReplay(); break;
+        case KeyEvent.VK_M: DrawDispersion.toggle(s.snapshot()); break;
+        case KeyEvent.VK_L: DrawTransfer.cycleTarget(s.snapshot()); break;
+
+        // Maneuver nodes: N adds one ahead of now, B selects the next, the rest edit the selected one
+        case KeyEvent.VK_N: s.addNode(new ManeuverNode(s.simTimeSec + Config.NODE_LEAD_SEC, 0.0, 0.0)); break;
+        case KeyEvent.VK_B: s.selectNextNode(); break;
+        case KeyEvent.VK_DELETE:
+        case KeyEvent.VK_BACK_SPACE: s.removeSelectedNode(); break;
+        case KeyEvent.VK_PAGE_UP:   editNode(e, 1, 0, 0); break;
+        case KeyEvent.VK_PAGE_DOWN: editNode(e, -1, 0, 0); break;
+        case KeyEvent.VK_HOME:      editNode(e, 0, 1, 0); break;
+        case KeyEvent.VK_END:       editNode(e, 0, -1, 0); break;
+        case KeyEvent.VK_SEMICOLON: editNode(e, 0, 0, -1); break;
+        case KeyEvent.VK_QUOTE:     editNode(e, 0, 0, 1); break;
+        case KeyEvent.VK_F5: quickSave(); break;
+        case KeyEvent.VK_F9: quickLoad(); break;
+        case KeyEvent.VK_COMMA:
+          v.seekReplay(-(e.isShiftDown()? 10 : 1) * Config.REPLAY_SEEK_SEC);
+          break;
+        case KeyEvent.VK_PERIOD:
+          v.seekReplay((e.isShiftDown()? 10 : 1) * Config.REPLAY_SEEK_SEC);
+          break;
+
+        // F behavior:
+        // - If in Planet Follow -> switch to FreeCam
+        // - If in FreeCam      -> switch to Rocket Follow
+        // - If in Rocket Follow-> switch to FreeCam
+        case KeyEvent.VK_F:
+          if (followingBody) {
+            // Planet Follow -> FreeCam
+            followingBody = false;
+            s.followRocket = false;
+            v.clearFollowBody();
+            // leave camera where it is
+          } else if (!s.followRocket) {
+            // FreeCam -> Rocket Follow
+            s.followRocket = true;
+            v.clearFollowBody();
+            v.snapCameraToRocket();
+          } else {
+            // Rocket Follow -> FreeCam
+            s.followRocket = false;
+            v.clearFollowBody();
+          }
+          break;
+      }
+    }
+  }
+
+  /** Nudge the selected node's prograde/radial delta-v or time by one step (Shift: ten). */
+  private void editNode(KeyEvent e, int pro, int rad, int time){
+    ManeuverNode n = s.selectedNode();
+    if (n == null) return;
+    double k = e.isShiftDown() ? 10.0 : 1.0;
+    s.replaceSelectedNode(new ManeuverNode(
+        Math.max(s.simTimeSec, n.t + time * k * Config.NODE_TIME_STEP),
+        n.prograde + pro * k * Config.NODE_DV_STEP,
+        n.radial + rad * k * Config.NODE_DV_STEP));
+  }
+
+  // ---------- Quick-save (caller holds the State lock) ----------
+  private void quickSave(){
+    try {
+      Snapshot.save(quickSave, s, v.camera());
+    } catch (java.io.IOException ex) {
+      System.err.println("Quick-save failed: " + ex.getMessage());
+    }
+  }
+
+  private void quickLoad(){
+    v.stopReplay();
+    try {
+      Snapshot.Camera cam = Snapshot.load(quickSave, s);
+      s.upHeld = s.downHeld = s.leftHeld = s.rightHeld = false;
+      v.clearFollowBody();
+      if (cam != null) v.restoreCamera(cam);
+      followingBody = !s.followRocket && v.followBodyIdx() >= 0;
+    } catch (java.nio.file.NoSuchFileException ex) {
+      System.err.println("No quick-save yet (F5 saves to " + quickSave + ")");
+    } catch (java.io.IOException ex) {
+      System.err.println("Quick-load failed: " + ex.getMessage());
     }
   }
 
   @Override public void keyReleased(KeyEvent e){
-    switch(e.getKeyCode()){
-      case KeyEvent.VK_UP:
-      case KeyEvent.VK_W: s.upHeld=false; break;
-      case KeyEvent.VK_DOWN:
-      case KeyEvent.VK_S: s.downHeld=false; break;
-      case KeyEvent.VK_LEFT:
-      case KeyEvent.VK_A: s.leftHeld=false; break;
-      case KeyEvent.VK_RIGHT:
-      case KeyEvent.VK_D: s.rightHeld=false; break;
+    synchronized (s) {
+      switch(e.getKeyCode()){
+        case KeyEvent.VK_UP:
+        case KeyEvent.VK_W: s.upHeld=false; break;
+        case KeyEvent.VK_DOWN:
+        case KeyEvent.VK_S: s.downHeld=false; break;
+        case KeyEvent.VK_LEFT:
+        case KeyEvent.VK_A: s.leftHeld=false; break;
+        case KeyEvent.VK_RIGHT:
+        case KeyEvent.VK_D: s.rightHeld=false; break;
+      }
     }
   }
   @Override public void keyTyped(KeyEvent e){}
@@ -87,10 +165,7 @@ public class Input implements KeyListener, MouseWheelListener, MouseListener, Mo
   @Override public void mouseWheelMoved(MouseWheelEvent e){
     int notches = e.getWheelRotation();
     double zoom = Math.pow(1.1, -notches);
-    double bx = v.s2wX(e.getX()), by = v.s2wY(e.getY());
-    v.setPxPerM(v.pxPerM() * zoom);
-    double ax = v.s2wX(e.getX()), ay = v.s2wY(e.getY());
-    v.setCam(v.camX() + (bx-ax), v.camY() + (by-ay));
+    v.zoomAt(e.getX(), e.getY(), zoom);
     v.repaint();
   }
 
@@ -102,9 +177,7 @@ public class Input implements KeyListener, MouseWheelListener, MouseListener, Mo
   @Override public void mouseDragged(MouseEvent e){
     if (lastDrag != null && !s.followRocket && !followingBody) {
       Point p = e.getPoint();
-      double dx = (p.x - lastDrag.x) / v.pxPerM();
-      double dy = (p.y - lastDrag.y) / v.pxPerM();
-      v.setCam(v.camX() - dx, v.camY() + dy);
+      v.panBy(p.x - lastDrag.x, p.y - lastDrag.y);
       lastDrag = p;
       v.repaint();
     }
@@ -119,7 +192,7 @@ public class Input implements KeyListener, MouseWheelListener, MouseListener, Mo
     int idx = DrawHud.hitTestTimeButton(mx, my);
     if (idx >= 0){
       double val = DrawHud.presetValueAt(idx);
-      s.timeScale = State.clamp(val, Config.TIME_SCALE_MIN, Config.TIME_SCALE_MAX);
+      synchronized (s) { s.timeScale = State.clamp(val, Config.TIME_SCALE_MIN, Config.TIME_SCALE_MAX); }
       v.repaint();
       return;
     }
@@ -135,17 +208,19 @@ public class Input implements KeyListener, MouseWheelListener, MouseListener, Mo
       if (d <= Math.max(thresh, rpx) && d < best) { best = d; pick = i; }
     }
 
-    if (pick >= 0) {
-      // Follow that body and auto-zoom to fit (SimPanel handles zoom+snap)
-      s.followRocket = false;
-      v.setFollowBody(pick);
-      followingBody = true;
-    } else {
-      // Clicked empty space -> follow rocket
-      s.followRocket = true;
-      v.clearFollowBody();
-      v.snapCameraToRocket();
-      followingBody = false;
+    synchronized (s) {
+      if (pick >= 0) {
+        // Follow that body and auto-zoom to fit (SimPanel handles zoom+snap)
+        s.followRocket = false;
+        v.setFollowBody(pick);
+        followingBody = true;
+      } else {
+        // Clicked empty space -> follow rocket
+        s.followRocket = true;
+        v.clearFollowBody();
+        v.snapCameraToRocket();
+        followingBody = false;
+      }
     }
   }
 
@@ -0,0 +1,164 @@
+// File: src/rocket/Integrator.java
+package rocket;
+
+/**
+ * Time integrators for the rocket's point-mass equations of motion, shared by the live step
+ * (Physics.stepRocket) and the predictor. The state is y = {x, y, vx, vy}; the acceleration
+ * comes from a {@link Field} owned by the caller, so every integrator is allocation-free and
+ * safe to use from several threads as long as each thread has its own Field.
+ */
+public enum Integrator {
+    /** Semi-implicit (symplectic) Euler, forces evaluated at the end-of-step time. The original scheme. */
+    EULER("Euler", 0.01) {
+        @Override public void step(Field f, double[] y, double t, double h){
+            f.accel(t + h, y[0], y[1]);
+            y[2] += f.ax * h; y[3] += f.ay * h;
+            y[0] += y[2] * h; y[1] += y[3] * h;
+        }
+    },
+
+    /** Velocity Verlet (kick-drift-kick): symplectic, 2nd order, one force evaluation per step via the Field cache. */
+    VERLET("Verlet", 0.05) {
+        @Override public void step(Field f, double[] y, double t, double h){
+            final double hh = 0.5 * h;
+            f.accel(t, y[0], y[1]);
+            y[2] += f.ax * hh; y[3] += f.ay * hh;
+            y[0] += y[2] * h;  y[1] += y[3] * h;
+            f.accel(t + h, y[0], y[1]);
+            y[2] += f.ax * hh; y[3] += f.ay * hh;
+        }
+    },
+
+    /** Classic 4th-order Runge-Kutta. */
+    RK4("RK4", 0.05) {
+        @Override public void step(Field f, double[] y, double t, double h){
+            final double[][] k = f.k; final double[] yt = f.yt;
+            deriv(f, t, y, k[0]);
+            for (int i = 0; i < 4; i++) yt[i] = y[i] + 0.5 * h * k[0][i];
+            deriv(f, t + 0.5 * h, yt, k[1]);
+            for (int i = 0; i < 4; i++) yt[i] = y[i] + 0.5 * h * k[1][i];
+            deriv(f, t + 0.5 * h, yt, k[2]);
+            for (int i = 0; i < 4; i++) yt[i] = y[i] + h * k[2][i];
+            deriv(f, t + h, yt, k[3]);
+            for (int i = 0; i < 4; i++) y[i] += h / 6.0 * (k[0][i] + 2 * k[1][i] + 2 * k[2][i] + k[3][i]);
+        }
+    },
+
+    /**
+     * Dormand–Prince 5(4) with embedded error control. Covers [t, t+h] with as many internal
+     * steps as the tolerance needs; the last accepted step size is kept in Field.hNext so the
+     * next call starts from it (usually far larger than h for coasting arcs).
+     */
+    DOPRI45("DOPRI45", 0.05) {
+        @Override public void step(Field f, double[] y, double t, double h){
+            final double tEnd = t + h;
+            double hs = (f.hNext > 0.0) ? Math.min(f.hNext, h) : h;
+            while (tEnd - t > 1e-12 * Math.max(1.0, Math.abs(tEnd))) {
+                double hTry = Math.min(hs, tEnd - t);
+                double err = dopriAttempt(f, y, t, hTry);
+                if (err <= 1.0 || hTry <= DOPRI_MIN_H) {
+                    System.arraycopy(f.yt, 0, y, 0, 4);
+                    t += hTry;
+                    double grow = (err <= 1e-10) ? 5.0 : Math.min(5.0, 0.9 * Math.pow(err, -0.2));
+                    if (hTry == hs) hs = Math.min(hs * grow, Config.DOPRI_MAX_H);
+                } else {
+                    hs = Math.max(DOPRI_MIN_H, hTry * Math.max(0.2, 0.9 * Math.pow(err, -0.25)));
+                }
+            }
+            f.hNext = hs;
+        }
+    };
+
+    private static final double DOPRI_MIN_H = 1e-4;
+
+    // Dormand–Prince tableau (5th-order solution weights = last row of A, FSAL)
+    private static final double[][] DP_A = {
+        {},
+        {1.0/5},
+        {3.0/40, 9.0/40},
+        {44.0/45, -56.0/15, 32.0/9},
+        {19372.0/6561, -25360.0/2187, 64448.0/6561, -212.0/729},
+        {9017.0/3168, -355.0/33, 46732.0/5247, 49.0/176, -5103.0/18656},
+        {35.0/384, 0.0, 500.0/1113, 125.0/192, -2187.0/6784, 11.0/84}
+    };
+    private static final double[] DP_C = {0.0, 1.0/5, 3.0/10, 4.0/5, 8.0/9, 1.0, 1.0};
+    private static final double[] DP_E = {
+        71.0/57600, 0.0, -71.0/16695, 71.0/1920, -17253.0/339200, 22.0/525, -1.0/40
+    };
+
+    private final String label;
+    private final double liveDt;
+
+    Integrator(String label, double liveDt){ this.label = label; this.liveDt = liveDt; }
+
+    /** Advance y = {x, y, vx, vy} from time t by h seconds in place. */
+    public abstract void step(Field f, double[] y, double t, double h);
+
+    /** HUD name. */
+    public String label(){ return label; }
+
+    /** Fixed sub-step (sim seconds) the simulation thread uses with this integrator. */
+    public double liveDt(){ return liveDt; }
+
+    /** Cycle order for the HUD/key binding. */
+    public Integrator next(){ Integrator[] all = values(); return all[(ordinal() + 1) % all.length]; }
+
+    private static void deriv(Field f, double t, double[] y, double[] out){
+        f.accel(t, y[0], y[1]);
+        out[0] = y[2]; out[1] = y[3]; out[2] = f.ax; out[3] = f.ay;
+    }
+
+    /** One trial step of size h; leaves the 5th-order result in f.yt and returns the scaled error norm. */
+    private static double dopriAttempt(Field f, double[] y, double t, double h){
+        final double[][] k = f.k; final double[] yt = f.yt;
+        deriv(f, t, y, k[0]);
+        for (int s = 1; s < 7; s++) {
+            double[] a = DP_A[s];
+            for (int i = 0; i < 4; i++) {
+                double acc = 0.0;
+                for (int j = 0; j < s; j++) acc += a[j] * k[j][i];
+                yt[i] = y[i] + h * acc;
+            }
+            deriv(f, t + DP_C[s] * h, yt, k[s]);
+        }
+        // yt now holds the 5th-order solution (stage 7 is evaluated at it)
+        double err = 0.0;
+        for (int i = 0; i < 4; i++) {
+            double e = 0.0;
+            for (int j = 0; j < 7; j++) e += DP_E[j] * k[j][i];
+            double tol = (i < 2) ? Config.DOPRI_ATOL_POS : Config.DOPRI_ATOL_VEL;
+            err = Math.max(err, Math.abs(h * e) / tol);
+        }
+        return err;
+    }
+
+    /**
+     * Acceleration field a(t, x, y). Subclasses implement {@link #eval}; callers and integrators
+     * go through {@link #accel}, which caches the last point so first-same-as-last schemes
+     * (Verlet, Dormand–Prince) don't pay for the repeated evaluation.
+     */
+    public abstract static class Field {
+        /** Output of the last accel() call (m/s²). */
+        public double ax, ay;
+        /** Step-size hint carried between calls by adaptive integrators (0 = none yet). */
+        public double hNext = 0.0;
+        /** Number of real (uncached) evaluations, for diagnostics. */
+        public long evals = 0;
+
+        final double[][] k = new double[7][4];
+        final double[] yt = new double[4];
+        private double ct = Double.NaN, cx, cy, cax, cay;
+
+        /** Compute the acceleration at (t, x, y) into ax/ay. */
+        protected abstract void eval(double t, double x, double y);
+
+        public final void accel(double t, double x, double y){
+            if (t == ct && x == cx && y == cy) { ax = cax; ay = cay; return; }
+            eval(t, x, y); evals++;
+            ct = t; cx = x; cy = y; cax = ax; cay = ay;
+        }
+
+        /** Drop the cached point; call when the field itself changes (e.g. new thrust). */
+        public final void invalidate(){ ct = Double.NaN; }
+    }
+}
@@ -0,0 +1,126 @@
+// File: src/rocket/Kepler.java
+package rocket;
+
+import static java.lang.Math.*;
+
+/**
+ * Two-body (Keplerian) helpers: universal-variable propagation, valid for elliptic, parabolic
+ * and hyperbolic conics alike, plus sphere-of-influence bookkeeping for patched conics.
+ */
+public final class Kepler {
+    private Kepler(){}
+
+    private static final int MAX_ITER = 60;
+
+    /**
+     * Propagate a body-relative state (x,y,vx,vy) around a point mass mu by dt seconds
+     * (dt may be negative). Writes {x, y, vx, vy} into out. Allocation-free.
+     */
+    public static void propagate(double mu, double x, double y, double vx, double vy, double dt, double[] out){
+        final double r0 = hypot(x, y);
+        final double v2 = vx*vx + vy*vy;
+        final double rv = x*vx + y*vy;
+        final double sqmu = sqrt(mu);
+        final double alpha = 2.0 / r0 - v2 / mu;      // 1/a (negative for hyperbolae)
+
+        if (dt == 0.0 || r0 <= 0.0) { out[0] = x; out[1] = y; out[2] = vx; out[3] = vy; return; }
+
+        // Whole ellipse periods don't change the state; keeping dt under one period bounds chi
+        if (alpha > 1e-15) {
+            double period = 2.0 * PI / (sqmu * pow(alpha, 1.5));
+            dt = IEEEremainder(dt, period);
+        }
+
+        // Initial guess (Vallado)
+        double chi;
+        if (alpha > 1e-15) {
+            chi = sqmu * dt * alpha;
+        } else if (alpha < -1e-15) {
+            double a = 1.0 / alpha, sg = signum(dt);
+            double num = -2.0 * mu * alpha * dt;
+            double den = rv + sg * sqrt(-mu * a) * (1.0 - r0 * alpha);
+            chi = sg * sqrt(-a) * log(max(num / den, 1e-12));
+            if (!Double.isFinite(chi)) chi = sqmu * dt / r0;
+        } else {
+            chi = sqmu * dt / r0;
+        }
+
+        // Newton on the universal Kepler equation; F'(chi) is the radius r > 0
+        double c = 0, s = 0, r = r0;
+        for (int it = 0; it < MAX_ITER; it++) {
+            double z = alpha * chi * chi;
+            c = stumpffC(z); s = stumpffS(z);
+            double chi2 = chi * chi, chi3 = chi2 * chi;
+            double F = rv / sqmu * chi2 * c + (1.0 - alpha * r0) * chi3 * s + r0 * chi - sqmu * dt;
+            r = chi2 * c + rv / sqmu * chi * (1.0 - z * s) + r0 * (1.0 - z * c);
+            double d = F / r;
+            chi -= d;
+            if (abs(d) <= 1e-12 * max(1.0, abs(chi))) break;
+        }
+        double z = alpha * chi * chi;
+        c = stumpffC(z); s = stumpffS(z);
+        double chi2 = chi * chi, chi3 = chi2 * chi;
+
+        double f = 1.0 - chi2 / r0 * c;
+        double g = dt - chi3 * s / sqmu;
+        double nx = f * x + g * vx, ny = f * y + g * vy;
+        double rn = hypot(nx, ny);
+        double fd = sqmu / (rn * r0) * (alpha * chi3 * s - chi);
+        double gd = 1.0 - chi2 / rn * c;
+        out[0] = nx; out[1] = ny;
+        out[2] = fd * x + gd * vx; out[3] = fd * y + gd * vy;
+    }
+
+    /** Orbital period (s) of the relative state, or +Inf if it is not bound. */
+    public static double period(double mu, double x, double y, double vx, double vy){
+        double alpha = 2.0 / hypot(x, y) - (vx*vx + vy*vy) / mu;
+        return (alpha > 1e-15) ? 2.0 * PI / (sqrt(mu) * pow(alpha, 1.5)) : Double.POSITIVE_INFINITY;
+    }
+
+    /** Periapsis radius (m) of the relative state; works for any conic. */
+    public static double periapsis(double mu, double x, double y, double vx, double vy){
+        double h = x*vy - y*vx;
+        double r = hypot(x, y), v2 = vx*vx + vy*vy;
+        double ex = ((v2 - mu / r) * x - (x*vx + y*vy) * vx) / mu;
+        double ey = ((v2 - mu / r) * y - (x*vx + y*vy) * vy) / mu;
+        double e = hypot(ex, ey);
+        return h * h / (mu * (1.0 + e));
+    }
+
+    /** Sphere-of-influence radius of body i around its orbit center (Laplace); +Inf for root bodies. */
+    public static double soiRadius(Catalog c, int i){ return c.soi(i); }
+
+    /**
+     * Dominant body for (x,y): start at the root and descend into any child whose sphere of
+     * influence contains the point (e.g. Sun -> Earth -> Moon). The ephemeris must be evaluated.
+     * With several roots, the one with the largest mu wins.
+     */
+    public static int dominantBody(Ephemeris eph, double x, double y){
+        Catalog c = eph.catalog;
+        int cur = -1;
+        for (int r : c.roots()) if (cur < 0 || c.mu[r] > c.mu[cur]) cur = r;
+        if (cur < 0) return 0;
+        boolean descended = true;
+        while (descended) {
+            descended = false;
+            for (int i : c.children(cur)) {
+                double dx = x - eph.x[i], dy = y - eph.y[i];
+                double soi = c.soi(i);
+                if (dx*dx + dy*dy < soi * soi) { cur = i; descended = true; break; }
+            }
+        }
+        return cur;
+    }
+
+    static double stumpffC(double z){
+        if (z > 1e-6)  return (1.0 - cos(sqrt(z))) / z;
+        if (z < -1e-6) return (cosh(sqrt(-z)) - 1.0) / (-z);
+        return 0.5 - z / 24.0 + z * z / 720.0;
+    }
+
+    static double stumpffS(double z){
+        if (z > 1e-6)  { double sz = sqrt(z);  return (sz - sin(sz)) / (sz * z); }
+        if (z < -1e-6) { double sz = sqrt(-z); return (sinh(sz) - sz) / (sz * -z); }
+        return 1.0 / 6.0 - z / 120.0 + z * z / 5040.0;
+    }
+}
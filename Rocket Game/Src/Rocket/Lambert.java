@@ -0,0 +1,86 @@
+// File: src/rocket/Lambert.java
+package rocket;
+
+import static java.lang.Math.*;
+
+/**
+ * Lambert's problem in the plane: the conic around a point mass mu that goes from r1 to r2 in
+ * a given time of flight. Universal-variable formulation (Bate, Mueller & White; Curtis alg. 5.2),
+ * zero revolutions, solved by Newton on z with a bisection fallback so it always converges
+ * inside the bracket. C(z) and y(z) use half-angle forms: near a full revolution (z -> 4 pi^2)
+ * the textbook 1 - cos and zS - 1 cancel to noise. Allocation-free.
+ */
+public final class Lambert {
+    private Lambert(){}
+
+    private static final int MAX_ITER = 80;
+    private static final double Z_MAX = 4.0 * PI * PI;     // one full revolution
+    private static final double Z_MIN = -1e5;              // cosh(sqrt(-z)) stays finite
+
+    /**
+     * Solve for the transfer from (x1,y1) to (x2,y2) (relative to the central body) taking tof
+     * seconds, going counter-clockwise if ccw. Writes {v1x, v1y, v2x, v2y} into out and returns
+     * true, or returns false if there is no usable solution (tof <= 0, or r1 and r2 collinear
+     * with the center, where the transfer plane is undefined).
+     */
+    public static boolean solve(double mu, double x1, double y1, double x2, double y2, double tof, boolean ccw, double[] out){
+        final double r1 = hypot(x1, y1), r2 = hypot(x2, y2);
+        if (!(tof > 0.0) || r1 <= 0.0 || r2 <= 0.0) return false;
+
+        // Transfer angle in the direction of travel
+        double cosD = State.clamp((x1*x2 + y1*y2) / (r1 * r2), -1.0, 1.0);
+        double dth = acos(cosD);
+        double cross = x1*y2 - y1*x2;
+        if ((cross < 0.0) == ccw) dth = 2.0 * PI - dth;
+        if (abs(sin(dth)) < 1e-9) return false;
+
+        final double A = sin(dth) * sqrt(r1 * r2 / (1.0 - cosD));
+        final double target = sqrt(mu) * tof;
+
+        // F(z) increases with z; keep [lo, hi] bracketing its root
+        double lo = Z_MIN, hi = Z_MAX, z = 0.0;
+        for (int it = 0; it < MAX_ITER; it++) {
+            double C = stumpffC(z), S = Kepler.stumpffS(z);
+            double y = y(r1, r2, A, z);
+            if (y < 0.0) {                                   // z too small for this geometry
+                lo = z; z = 0.5 * (lo + hi); continue;
+            }
+            double yc = y / C, F = pow(yc, 1.5) * S + A * sqrt(y) - target;
+            if (abs(F) <= 1e-11 * target) break;
+            if (F < 0.0) lo = z; else hi = z;
+
+            double dF = dF(z, y, A, C, S);
+            double zn = z - F / dF;
+            z = (dF > 0.0 && zn > lo && zn < hi) ? zn : 0.5 * (lo + hi);
+            if (hi - lo <= 1e-14 * max(1.0, abs(z))) break;
+        }
+
+        double y = y(r1, r2, A, z);
+        if (!(y > 0.0)) return false;
+        double f = 1.0 - y / r1, g = A * sqrt(y / mu), gd = 1.0 - y / r2;
+        out[0] = (x2 - f * x1) / g; out[1] = (y2 - f * y1) / g;
+        out[2] = (gd * x2 - x1) / g; out[3] = (gd * y2 - y1) / g;
+        return Double.isFinite(out[0]) && Double.isFinite(out[1]) && Double.isFinite(out[2]) && Double.isFinite(out[3]);
+    }
+
+    /** r1 + r2 + A (zS - 1) / sqrt(C), which reduces to r1 + r2 - A sqrt(2) cos(sqrt(z)/2) (cosh for z < 0). */
+    private static double y(double r1, double r2, double A, double z){
+        double h = (z >= 0.0) ? cos(0.5 * sqrt(z)) : cosh(0.5 * sqrt(-z));
+        return r1 + r2 - A * sqrt(2.0) * h;
+    }
+
+    /** Stumpff C(z) as 2 sin^2(sqrt(z)/2) / z (sinh for z < 0). */
+    private static double stumpffC(double z){
+        if (z > 1e-6)  { double s = sin(0.5 * sqrt(z));   return 2.0 * s * s / z; }
+        if (z < -1e-6) { double s = sinh(0.5 * sqrt(-z)); return 2.0 * s * s / -z; }
+        return Kepler.stumpffC(z);
+    }
+
+    private static double dF(double z, double y, double A, double C, double S){
+        if (abs(z) < 1e-6) {
+            return sqrt(2.0) / 40.0 * pow(y, 1.5) + A / 8.0 * (sqrt(y) + A * sqrt(1.0 / (2.0 * y)));
+        }
+        return pow(y / C, 1.5) * ((C - 1.5 * S / C) / (2.0 * z) + 0.75 * S * S / C)
+             + A / 8.0 * (3.0 * S / C * sqrt(y) + A * sqrt(C / y));
+    }
+}
@@ -0,0 +1,100 @@
+// File: src/rocket/Layer.java
+package rocket;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+/**
+ * One cached render layer: content that only changes with the camera (stars, orbit ellipses,
+ * body labels) is painted into an offscreen image once and composited every frame.
+ *
+ * The image covers the viewport plus a margin of Config.LAYER_PAD_FRAC of it on every side, and
+ * is re-painted only when its inputs change: viewport size, zoom (pannable layers only; the
+ * screen-fixed ones do not depend on the camera), the caller's key (the catalog, say), or the screen points the content hangs on ("anchors": orbit centers, labelled bodies)
+ * moving relative to each other. When they all moved by the same amount (a pan, or the camera
+ * following something) the old image is drawn shifted by that amount instead, until the shift
+ * would run past the margin. Shifts are rounded to whole pixels and anchors may disagree by up
+ * to Config.LAYER_TOL_PX, so a reused layer is within about a pixel of a fresh one.
+ *
+ * The painter draws in viewport coordinates (v.w2sX...); the graphics it gets is clipped to the
+ * viewport plus the margin, which is also the region it should cull against.
+ *
+ * One instance per layer, used from the rendering thread only.
+ */
+final class Layer {
+    interface Painter { void paint(Graphics2D g, SimPanel v, State s); }
+
+    private final Painter painter;
+    private final boolean pannable;
+    private BufferedImage img;
+    private int vw = -1, vh = -1, pad = 0;
+    private double ppm = Double.NaN;
+    private Object key;
+    private double[] drawn = new double[0];   // anchors when last painted
+    private int drawnN = -1;
+    private long paints = 0;
+
+    /** A layer; pannable ones keep a margin and follow their anchors, the others are screen-fixed. */
+    Layer(Painter painter, boolean pannable){ this.painter = painter; this.pannable = pannable; }
+
+    /** Times the layer has been re-painted (the rest were reused). */
+    long paints(){ return paints; }
+
+    /** Margin (px) the layer extends past the viewport on each side. */
+    static int padFor(SimPanel v){
+        return (int) Math.ceil(Config.LAYER_PAD_FRAC * Math.max(v.getWidth(), v.getHeight()));
+    }
+
+    /**
+     * Composite the layer onto g: reuse, shift or re-paint it. anchors holds n screen points
+     * (x0, y0, x1, y1, ...) the content is drawn around this frame.
+     */
+    void draw(Graphics2D g, SimPanel v, State s, Object key, double[] anchors, int n){
+        final int w = v.getWidth(), h = v.getHeight();
+        if (w <= 0 || h <= 0) return;
+        double dx = 0.0, dy = 0.0;
+        boolean reuse = img != null && w == vw && h == vh && (!pannable || v.pxPerM() == ppm)
+                && n == drawnN && Objects.equals(key, this.key);
+        if (reuse && n > 0) {
+            dx = anchors[0] - drawn[0]; dy = anchors[1] - drawn[1];
+            final double tol = Config.LAYER_TOL_PX;
+            for (int k = 2; k < 2 * n && reuse; k += 2) {
+                reuse = Math.abs(anchors[k] - drawn[k] - dx) <= tol && Math.abs(anchors[k + 1] - drawn[k + 1] - dy) <= tol;
+            }
+            reuse &= Math.abs(dx) <= pad && Math.abs(dy) <= pad;
+        }
+        if (!reuse) {
+            paint(g, v, s, w, h);
+            this.key = key; drawnN = n;
+            if (drawn.length < 2 * n) drawn = new double[2 * n];
+            System.arraycopy(anchors, 0, drawn, 0, 2 * n);
+            dx = 0.0; dy = 0.0;
+        }
+        g.drawImage(img, (int) Math.round(dx) - pad, (int) Math.round(dy) - pad, null);
+    }
+
+    private void paint(Graphics2D g, SimPanel v, State s, int w, int h){
+        pad = pannable ? padFor(v) : 0;
+        final int iw = w + 2 * pad, ih = h + 2 * pad;
+        if (img == null || img.getWidth() != iw || img.getHeight() != ih) {
+            GraphicsConfiguration gc = g.getDeviceConfiguration();
+            img = (gc != null) ? gc.createCompatibleImage(iw, ih, Transparency.TRANSLUCENT)
+                               : new BufferedImage(iw, ih, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D lg = img.createGraphics();
+        try {
+            lg.setComposite(AlphaComposite.Clear);
+            lg.fillRect(0, 0, iw, ih);
+            lg.setComposite(AlphaComposite.SrcOver);
+            lg.setRenderingHints(g.getRenderingHints());
+            lg.translate(pad, pad);
+            lg.clipRect(-pad, -pad, iw, ih);
+            painter.paint(lg, v, s);
+        } finally {
+            lg.dispose();
+        }
+        vw = w; vh = h; ppm = v.pxPerM();
+        paints++;
+    }
+}
@@ -0,0 +1,49 @@
+// File: src/rocket/ManeuverNode.java
+package rocket;
+
+/**
+ * A planned burn: at sim time t, change velocity by prograde/radial delta-v (m/s), measured
+ * against the velocity and position relative to the dominant body at that moment. Immutable;
+ * edits make a new node (see State.nodes).
+ *
+ * The predictor flies a node as a full-throttle burn starting at t along the direction fixed at
+ * its start, for as long as the delta-v needs and the fuel allows (the same budget as
+ * State.consumeFuel: one second of fuel per second at full throttle). Patched-conic prediction
+ * applies the same, fuel-limited delta-v as an impulse.
+ */
+public final class ManeuverNode {
+    public final double t, prograde, radial;
+
+    public ManeuverNode(double t, double prograde, double radial){
+        this.t = t; this.prograde = prograde; this.radial = radial;
+    }
+
+    public ManeuverNode withTime(double nt){ return new ManeuverNode(nt, prograde, radial); }
+    public ManeuverNode withPrograde(double p){ return new ManeuverNode(t, p, radial); }
+    public ManeuverNode withRadial(double r){ return new ManeuverNode(t, prograde, r); }
+
+    /** Total delta-v (m/s). */
+    public double dv(){ return Math.hypot(prograde, radial); }
+
+    /** Full-throttle acceleration of a planned burn (m/s²). */
+    public static double accel(){ return Config.MAX_THRUST_G * Config.G0; }
+
+    /** Burn length (s) at full throttle, ignoring fuel. */
+    public double burnSec(){ return dv() / accel(); }
+
+    /**
+     * World-frame unit direction of the burn into out[0..1], given the position and velocity
+     * relative to the dominant body. Radial is "out", perpendicular to prograde.
+     */
+    public void direction(double rx, double ry, double vx, double vy, double[] out){
+        double v = Math.hypot(vx, vy);
+        double px, py;
+        if (v > 1e-9) { px = vx / v; py = vy / v; }
+        else { double r = Math.max(Math.hypot(rx, ry), 1e-9); px = -ry / r; py = rx / r; }
+        double qx = -py, qy = px;                       // perpendicular; flip to point away from the body
+        if (qx * rx + qy * ry < 0) { qx = -qx; qy = -qy; }
+        double dx = prograde * px + radial * qx, dy = prograde * py + radial * qy;
+        double d = Math.hypot(dx, dy);
+        if (d > 0.0) { out[0] = dx / d; out[1] = dy / d; } else { out[0] = 0.0; out[1] = 0.0; }
+    }
+}
@@ -10,21 +10,9 @@ import static java.lang.Math.*;
 public final class Physics {
     private Physics(){}
 
-    /** Elevation above spherical radius at polar angle around body center. */
+    /** Elevation above spherical radius at polar angle around body center (table lookup; see Terrain). */
     public static double elevationAtAngle(State.Body b, double theta){
-        // Earth has no terrain bumps (smooth sphere)
-        if ("Earth".equalsIgnoreCase(b.name)) return 0.0;
-
-        double amp = b.terrainAmp;
-        if (amp <= 0.0) return 0.0;
-
-        double s = b.radius * theta;       // arc-length proxy
-        double K1 = (2*PI) / b.terrainL;   // fundamental wavelength
-        return amp * (
-                0.60*sin(K1*s + 0.3) +
-                0.30*sin(2*K1*s + 1.7) +
-                0.10*sin(4*K1*s + 5.1)
-        );
+        return b.terrain.elevation(theta);
     }
 
     /** Public API: spherical radius + elevation at world point (x,y) using the body's center. */
@@ -34,110 +22,511 @@ public final class Physics {
         return b.radius + elevationAtAngle(b, theta);
     }
 
-    /** Internal helper: same as above, but using arbitrary center coords (e.g. orbiting body at time T). */
-    private static double surfaceRadiusAtAtTime(State.Body b, double bodyCx, double bodyCy, double x, double y){
-        double theta = atan2(y - bodyCy, x - bodyCx);
+    /**
+     * Internal helper for collision tests: same as above, but using arbitrary center coords (e.g.
+     * orbiting body at time T). Above the highest possible terrain it returns that bound instead
+     * (still below the point), so tests far from the ground never touch the terrain cache.
+     */
+    static double surfaceRadiusAtAtTime(State.Body b, double bodyCx, double bodyCy, double x, double y){
+        double dx = x - bodyCx, dy = y - bodyCy, top = b.radius + b.terrain.maxElevation();
+        if (dx*dx + dy*dy >= top * top) return top;
+        double theta = atan2(dy, dx);
         if (theta < 0) theta += 2*PI;
         return b.radius + elevationAtAngle(b, theta);
     }
 
-    /** On-rails orbital state (position + velocity) for body i at absolute sim time T. */
-    private static OrbState onRailsAt(int i, double T){
-        int mode = Config.ORBIT_MODE[i];
-        int cIdx = Config.ORBIT_CENTER_IDX[i];
-        if (mode == 0 || cIdx < 0){
-            return new OrbState(Config.BODY_CX[i], Config.BODY_CY[i], 0.0, 0.0);
+    /**
+     * One fixed physics step of dtSim simulated seconds for the rocket, starting at sim time t0:
+     * fuel burn, thrust + gravity through the State's selected integrator, and ground collision in
+     * the ground frame. Bodies must already be positioned at t0 + dtSim (see State.advanceSimTimeBy).
+     *
+     * The rocket is integrated relative to its dominant body (State.frame), moving to the new one
+     * when it crosses a sphere of influence: near a planet millions of AU-scale metres would
+     * otherwise be added to and rounded off every position update. rx..vy are derived afterwards.
+     */
+    public static void stepRocket(State s, GravityField f, double t0, double dtSim){
+        double effThrottle = s.consumeFuel(dtSim); // consume fuel, get effective throttle
+        if (effThrottle > 0.0) s.predEpoch++;
+        double nx = sin(s.ang), ny = cos(s.ang);
+        f.setThrust(Config.MAX_THRUST_G * effThrottle * Config.G0 * nx,
+                    Config.MAX_THRUST_G * effThrottle * Config.G0 * ny);
+
+        // Body-relative state at t0: re-derived if rx..vy were set directly, rebased on SOI change
+        final Ephemeris eph = f.eph;
+        final double t1 = t0 + dtSim;
+        double[] y = f.y, y0 = f.y0;
+        eph.evaluate(t0);
+        int d;
+        if (s.frameCurrent()) {
+            d = s.frame;
+            y[0] = s.frx; y[1] = s.fry; y[2] = s.fvx; y[3] = s.fvy;
+            int nd = Kepler.dominantBody(eph, eph.x[d] + y[0], eph.y[d] + y[1]);
+            if (nd != d) { f.rebase(t0, d, nd, y); d = nd; }
         } else {
-            OrbState p = onRailsAt(cIdx, T);
-            double A = Config.ORBIT_A_M[i], B = Config.ORBIT_B_M[i];
-            double w = Config.ORBIT_OMEGA_RAD_PER_S[i];
-            double th = Config.ORBIT_PHASE_RAD[i] + w * T;
-            double wx = p.x + A * cos(th);
-            double wy = p.y + B * sin(th);
-            double vx = p.vx + (-A * w * sin(th));
-            double vy = p.vy + ( B * w * cos(th));
-            return new OrbState(wx, wy, vx, vy);
+            d = Kepler.dominantBody(eph, s.rx, s.ry);
+            y[0] = s.rx - eph.x[d]; y[1] = s.ry - eph.y[d]; y[2] = s.vx - eph.vx[d]; y[3] = s.vy - eph.vy[d];
+        }
+        f.setFrame(d);
+        System.arraycopy(y, 0, y0, 0, 4);
+        s.integrator.step(f, y, t0, dtSim);
+
+        // Ground collision in ground frame. A surface crossing inside the step (see Events) counts,
+        // not just an end point below ground, so long steps at high warp cannot pass through
+        // terrain: the rocket is re-integrated to the contact time and carried along with the body
+        // to the end of the step from there.
+        final double[] w0 = f.w0, w1 = f.w1, r = f.bs;
+        f.toWorld(t0, y0, w0); f.toWorld(t1, y, w1);
+        final Events ev = f.events;
+        boolean contact = ev.find(eph, ev.hermite(t0, w0, t1, w1), t0, w0, t1, w1, Events.Type.SURFACE.bit);
+        int b;
+        if (contact) {
+            b = ev.body;
+            System.arraycopy(y0, 0, y, 0, 4);
+            s.integrator.step(f, y, t0, ev.t - t0);
+            System.arraycopy(y, 0, r, 0, 4);
+            f.rebase(ev.t, d, b, r);
+        } else {
+            b = s.nearestBodyIdx(w1[0], w1[1]);
+            System.arraycopy(y, 0, r, 0, 4);
+            f.rebase(t1, d, b, r);
+        }
+        State.Body nb = s.bodies.get(b);
+        double dx = r[0], dy = r[1], rr = hypot(dx, dy);
+        double surfR = surfaceRadiusAtAtTime(nb, 0.0, 0.0, dx, dy);
+        boolean ground = contact || rr < surfR;
+        if (ground != s.grounded) { s.grounded = ground; s.predEpoch++; }     // touchdown or lift-off
+        if (ground) {
+            double inv = 1.0 / Math.max(rr, 1e-6), nxn = dx * inv, nyn = dy * inv;
+            double gvx = r[2], gvy = r[3];
+            double vn = gvx * nxn + gvy * nyn;
+            if (vn < 0) { gvx -= vn * nxn; gvy -= vn * nyn; }
+            double gt2 = gvx*gvx + gvy*gvy;
+            if (s.throttle < 0.02 && gt2 < 0.25) { gvx = 0; gvy = 0; } else { gvx *= 0.98; gvy *= 0.98; }
+            s.setFrameState(b, nxn * surfR, nyn * surfR, gvx, gvy);
+        } else {
+            s.setFrameState(d, y[0], y[1], y[2], y[3]);
         }
     }
 
-    private static final class OrbState {
-        final double x, y, vx, vy;
-        OrbState(double x, double y, double vx, double vy){ this.x=x; this.y=y; this.vx=vx; this.vy=vy; }
+    /**
+     * Analytic time warp: when the rocket coasts (no effective thrust) on a conic whose
+     * periapsis clears the dominant body's atmosphere and terrain, propagate it on that conic
+     * (Kepler.propagate, universal variables) the way the planets already move on rails.
+     * Work is chunked per orbit so SOI changes are picked up; a chunk that would land in a
+     * conic that is no longer clear stops early.
+     *
+     * Starts at s.simTimeSec and updates the rocket, the sim time and the bodies; y and out are
+     * scratch (length 4). Returns the simulated seconds consumed (0 if not eligible; the caller
+     * steps numerically).
+     */
+    public static double coastOnRails(State s, Ephemeris eph, double dtSim, double[] y, double[] out){
+        if (dtSim <= 0.0 || (s.throttle > 1e-9 && s.fuelSec > 1e-9)) return 0.0;
+        y[0] = s.rx; y[1] = s.ry; y[2] = s.vx; y[3] = s.vy;
+        double used = coast(eph, s.simTimeSec, dtSim, y, out);
+        if (used <= 0.0) return 0.0;
+        s.rx = y[0]; s.ry = y[1]; s.vx = y[2]; s.vy = y[3];
+        s.simTimeSec += used;
+        s.updateOrbits();
+        return used;
     }
 
-    /** Find nearest body index at (x,y) using on-rails positions at time T. */
-    private static int nearestBodyIdxAt(double x, double y, double T){
-        int best=-1; double bestD2=Double.POSITIVE_INFINITY;
-        for (int i=0;i<Config.BODY_COUNT;i++){
-            OrbState bi = onRailsAt(i, T);
-            double dx = x - bi.x, dy = y - bi.y, d2 = dx*dx + dy*dy;
-            if (d2 < bestD2){ bestD2 = d2; best = i; }
+    /**
+     * coastOnRails for any unpowered point mass: advances y = {x, y, vx, vy} (world frame) in
+     * place from sim time t by up to dtSim seconds and returns the seconds covered. out is
+     * Kepler scratch (length 4).
+     */
+    static double coast(Ephemeris eph, double t, double dtSim, double[] st, double[] out){
+        if (dtSim <= 0.0) return 0.0;
+        eph.evaluate(t);
+        int d = Kepler.dominantBody(eph, st[0], st[1]);
+        double x = st[0] - eph.x[d], y = st[1] - eph.y[d], vx = st[2] - eph.vx[d], vy = st[3] - eph.vy[d];
+        if (!clearOfSurface(eph, d, x, y, vx, vy)) return 0.0;
+
+        double left = dtSim;
+        while (left > 0.0) {
+            double mu = eph.mu[d];
+            double period = Kepler.period(mu, x, y, vx, vy);
+            double chunk = Double.isInfinite(period)
+                    ? Math.max(1.0, 0.05 * hypot(x, y) / Math.max(hypot(vx, vy), 1e-9))
+                    : period / Config.RAILS_CHUNKS_PER_ORBIT;
+            chunk = Math.min(left, chunk);
+            Kepler.propagate(mu, x, y, vx, vy, chunk, out);
+            t += chunk; left -= chunk;
+            eph.evaluate(t);
+            double px = eph.x[d] + out[0], py = eph.y[d] + out[1];
+            double pvx = eph.vx[d] + out[2], pvy = eph.vy[d] + out[3];
+            st[0] = px; st[1] = py; st[2] = pvx; st[3] = pvy;
+
+            int nd = Kepler.dominantBody(eph, px, py);
+            x = px - eph.x[nd]; y = py - eph.y[nd]; vx = pvx - eph.vx[nd]; vy = pvy - eph.vy[nd];
+            if (nd != d) { d = nd; if (!clearOfSurface(eph, d, x, y, vx, vy)) break; }
         }
-        return (best>=0)? best : 0;
+        return dtSim - left;
+    }
+
+    /** Periapsis of the body-relative conic stays above atmosphere, terrain and a safety margin. */
+    private static boolean clearOfSurface(Ephemeris eph, int d, double x, double y, double vx, double vy){
+        Catalog c = eph.catalog;
+        double safeR = c.radius[d] + Math.max(c.atmThick[d], c.terrain(d).maxElevation()) + Config.RAILS_MARGIN_M;
+        return Kepler.periapsis(eph.mu[d], x, y, vx, vy) > safeR;
     }
 
     /**
-     * Predict ballistic trajectory (no thrust).
-     * Returns world points that are already expressed relative to the
+     * Gravity of all on-rails bodies at time t plus a constant thrust acceleration.
+     * One instance per thread: it carries the integrator scratch, state vector and ephemeris.
+     *
+     * With setFrame(d) the state is relative to body d, which moves on its rails: the field
+     * then also takes out d's own acceleration, and d's pull (by far the largest term) comes
+     * straight from the relative position instead of from a rounded absolute one.
+     */
+    public static final class GravityField extends Integrator.Field {
+        final double[] y = new double[4], y0 = new double[4], bs = new double[4], w0 = new double[4], w1 = new double[4];
+        final Ephemeris eph = new Ephemeris();
+        final Events events = new Events();
+        private final double[] g = new double[2], fa = new double[2], c0 = new double[4], c1 = new double[4];
+        private double thrustAx, thrustAy;
+        private int frame = -1;
+
+        public void setThrust(double ax, double ay){
+            if (ax != thrustAx || ay != thrustAy) { thrustAx = ax; thrustAy = ay; invalidate(); }
+        }
+
+        /** Integrate relative to body d, or in the absolute frame for d < 0 (the default). */
+        public void setFrame(int d){
+            if (d != frame) { frame = d; hNext = 0.0; invalidate(); }
+        }
+
+        @Override protected void eval(double t, double x, double y){
+            eph.evaluate(t);
+            final int d = frame;
+            if (d < 0) {
+                Gravity.accel(eph.store, x, y, g);
+                ax = thrustAx + g[0]; ay = thrustAy + g[1];
+                return;
+            }
+            double px = eph.x[d] + x, py = eph.y[d] + y;
+            Gravity.accel(eph.store, px, py, g);
+            // Swap d's term at the rounded absolute point for the exact one (same 1 m softening)
+            double ux = px - eph.x[d], uy = py - eph.y[d], u2 = ux*ux + uy*uy, r2 = x*x + y*y;
+            double ku = (u2 > 1.0) ? -eph.mu[d] / (u2 * Math.sqrt(u2)) : 0.0;
+            double kr = (r2 > 1.0) ? -eph.mu[d] / (r2 * Math.sqrt(r2)) : 0.0;
+            eph.accel(d, fa);
+            ax = thrustAx + g[0] - ku * ux + kr * x - fa[0];
+            ay = thrustAy + g[1] - ku * uy + kr * y - fa[1];
+        }
+
+        /** World-frame state at time t of a state y relative to the current frame. */
+        void toWorld(double t, double[] y, double[] out){
+            if (frame < 0) { System.arraycopy(y, 0, out, 0, 4); return; }
+            eph.stateAt(frame, t, c0);
+            for (int k = 0; k < 4; k++) out[k] = c0[k] + y[k];
+        }
+
+        /** Re-express a state y relative to body from at time t as relative to body to, in place. */
+        void rebase(double t, int from, int to, double[] y){
+            if (from == to) return;
+            eph.stateAt(from, t, c0); eph.stateAt(to, t, c1);
+            for (int k = 0; k < 4; k++) y[k] += c0[k] - c1[k];
+        }
+    }
+
+    /** Sample spacing used by the predictor for a given horizon. */
+    public static double predDt(int horizonSec, double baseDt){
+        return Math.max(baseDt, horizonSec / (double) Config.PRED_POINTS_MAX);
+    }
+
+    /**
+     * Predict the coasting trajectory using s.integrator: no thrust except the planned burns of
+     * s.nodes (see Propagator). Returns world points that are already expressed relative to the
      * nearest body at t0. DrawPrediction just plots them.
      */
     public static List<Point2D.Double> predictBallistic(State s, int horizonSec, double baseDt){
         // Step size
-        double dt = Math.max(baseDt, horizonSec / (double) Config.PRED_POINTS_MAX);
+        double dt = predDt(horizonSec, baseDt);
         int steps = Math.max(1, (int) ceil(horizonSec / dt));
         steps = Math.min(steps, Config.PRED_POINTS_MAX);
 
         ArrayList<Point2D.Double> pts = new ArrayList<>(steps + 1);
+        Propagator p = new Propagator();
+        p.start(s, dt);
+        Ephemeris eph = p.eph;
+        final double ref0x = eph.x[p.refIdx], ref0y = eph.y[p.refIdx];
+
+        for (int i = 0; i < steps; i++) {
+            boolean more = p.advance();
+            if (more || p.event == Events.Type.SURFACE) pts.add(new Point2D.Double(ref0x + p.relX, ref0y + p.relY));
+            if (!more) break;
+        }
+        return pts;
+    }
 
-        // Lock reference body at t0
-        final double T0 = s.simTimeSec;
-        int refIdx = nearestBodyIdxAt(s.rx, s.ry, T0);
-        OrbState ref0 = onRailsAt(refIdx, T0);
+    /**
+     * Trajectory propagator shared by predictBallistic, PredictionCache and Dispersion: each
+     * advance() produces one sample and reports its position relative to the reference body
+     * (the body nearest the rocket at the start time), or false on surface impact.
+     *
+     * Every step is searched for the events in eventMask (see Events). A sample that reaches one
+     * stops at its exact time and says which in event; the next sample finishes the interrupted
+     * interval, so the regular spacing carries on. Impact is found inside the step as well: the
+     * last sample is the point of contact, not the first one below ground.
+     *
+     * NUMERIC mode integrates n-body gravity with the State's integrator at a fixed spacing.
+     * CONIC mode follows patched conics: the osculating orbit around the dominant body is
+     * sampled analytically (Kepler.propagate from the segment epoch, so O(1) per sample and no
+     * accumulated error), and a new segment starts whenever the path leaves the current
+     * body's sphere of influence or enters a child's.
+     *
+     * Maneuver nodes at or after the start time are flown as they come up, with a private fuel
+     * budget starting from s.fuelSec: NUMERIC integrates the finite burn in sub-steps of at most
+     * Config.BURN_PRED_DT that stop exactly at its start and end; CONIC applies it as an impulse
+     * and starts a new segment. A Checkpoint taken between samples (outside a burn) lets
+     * PredictionCache resume after a node edit instead of starting over.
+     */
+    public static final class Propagator {
+        private final GravityField f = new GravityField();
+        public final Ephemeris eph = f.eph;
+        private State s;
+        private Integrator integ;
+        private PredictionMode mode;
+        private double dt;
+        /** Sim time of the last sample. */
+        public double T;
+        public int refIdx;
+        /** Last sample relative to the reference body at time T. */
+        public double relX, relY;
+        /** Event the last sample stopped at (its time is T), or null for a regular sample. */
+        public Events.Type event;
+        /** Events (Events.Type bits) that end a sample early; the regular spacing resumes after them. */
+        public int eventMask = Events.ALL;
 
-        // Start rocket state (world frame)
-        double px = s.rx, py = s.ry, pvx = s.vx, pvy = s.vy;
+        // Event search along each step; the regular sample time cut short by the last event
+        private final Events events = new Events();
+        private final ConicPath conic = new ConicPath();
+        private final double[] y0 = new double[4], y1 = new double[4];
+        private double pendingEnd = Double.NaN;
 
-        double T = T0;
-        for (int i = 0; i < steps; i++) {
-            T += dt;
-
-            // Gravity sum
-            double ax = 0.0, ay = 0.0;
-            for (int bIdx = 0; bIdx < Config.BODY_COUNT; bIdx++){
-                OrbState bi = onRailsAt(bIdx, T);
-                double dx = px - bi.x, dy = py - bi.y;
-                double r2 = dx*dx + dy*dy;
-                if (r2 > 1.0){
-                    double r = sqrt(r2);
-                    double invR3 = 1.0 / (r2 * r);
-                    double mu = Config.BODY_MU[bIdx];
-                    ax += -mu * dx * invR3;
-                    ay += -mu * dy * invR3;
+        // Patched-conic segment: body, epoch and body-relative state at the epoch
+        private int segIdx;
+        private double segT, segX, segY, segVx, segVy, segDt;
+        private final double[] kep = new double[4];
+
+        // Planned burns: the node list, the next node not yet started, fuel left and the burn in progress
+        private List<ManeuverNode> nodes = List.of();
+        private int nextNode;
+        private double fuel, burnEnd = Double.NaN;
+        private final double[] dir = new double[2];
+
+        /** Begin at the rocket's current state; the ephemeris is left evaluated at s.simTimeSec. */
+        public void start(State s, double dt){
+            this.s = s; this.integ = s.integrator; this.mode = s.predMode; this.dt = dt;
+            double[] y = f.y;
+            y[0] = s.rx; y[1] = s.ry; y[2] = s.vx; y[3] = s.vy;
+            f.hNext = 0.0;
+            f.setThrust(0.0, 0.0);
+            T = s.simTimeSec;
+            nodes = s.nodes; nextNode = firstNodeAtOrAfter(nodes, T);
+            fuel = s.fuelSec; burnEnd = Double.NaN;
+            event = null; pendingEnd = Double.NaN;
+            events.reset();
+            eph.evaluate(T);
+            refIdx = eph.nearest(s.rx, s.ry);
+            relX = s.rx - eph.x[refIdx]; relY = s.ry - eph.y[refIdx];
+            if (mode == PredictionMode.CONIC) beginSegment(Kepler.dominantBody(eph, s.rx, s.ry), s.rx, s.ry, s.vx, s.vy);
+        }
+
+        public boolean advance(){
+            return (mode == PredictionMode.CONIC) ? advanceConic() : advanceNumeric();
+        }
+
+        /** True while a planned burn is in progress (no checkpoint can be taken). */
+        public boolean burning(){ return !Double.isNaN(burnEnd); }
+
+        /** Predicted fuel left (s of full-throttle burn) at time T. */
+        public double fuel(){ return fuel; }
+
+        /** World-frame state {x, y, vx, vy} at time T into out. */
+        public void worldState(double[] out){
+            if (mode != PredictionMode.CONIC) { System.arraycopy(f.y, 0, out, 0, 4); return; }
+            Kepler.propagate(eph.mu[segIdx], segX, segY, segVx, segVy, T - segT, kep);
+            eph.stateAt(segIdx, T, out);
+            for (int k = 0; k < 4; k++) out[k] += kep[k];
+        }
+
+        private boolean advanceNumeric(){
+            double[] y = f.y;
+            final double tEnd = Double.isNaN(pendingEnd) ? T + dt : pendingEnd;
+            pendingEnd = Double.NaN; event = null;
+
+            // Sub-steps that land exactly on burn start/end times (one step without burns). Each
+            // is searched for events; the first one ends the sample at its exact time.
+            double t = T;
+            while (t < tEnd) {
+                if (!burning() && nextNode < nodes.size() && nodes.get(nextNode).t <= t) startBurn(nodes.get(nextNode++), t, y);
+                double h = tEnd - t;
+                if (burning()) h = Math.min(h, Math.min(burnEnd - t, Config.BURN_PRED_DT));
+                else if (nextNode < nodes.size()) h = Math.min(h, nodes.get(nextNode).t - t);
+                if (h <= 0.0) { if (burning()) endBurn(); continue; }
+                System.arraycopy(y, 0, y0, 0, 4);
+                integ.step(f, y, t, h);
+                if (eventMask != 0 && events.find(eph, events.hermite(t, y0, t + h, y), t, y0, t + h, y, eventMask)) {
+                    System.arraycopy(y0, 0, y, 0, 4);
+                    integ.step(f, y, t, events.t - t);
+                    return stopAtEvent(events.t, tEnd, y[0], y[1]);
                 }
+                t += h;
+                if (burning() && t >= burnEnd) endBurn();
             }
+            T = tEnd;
+            double px = y[0], py = y[1];
 
-            // Integrate rocket
-            pvx += ax * dt;  pvy += ay * dt;
-            px  += pvx * dt; py  += pvy * dt;
-
-            // Collision check
-            int nbIdx = nearestBodyIdxAt(px, py, T);
-            OrbState nbState = onRailsAt(nbIdx, T);
+            // Collision check (one ephemeris evaluation at T serves everything below)
+            eph.evaluate(T);
+            int nbIdx = eph.nearest(px, py);
             State.Body nb = s.bodies.get(nbIdx);
-            double rr = hypot(px - nbState.x, py - nbState.y);
-            double rSurf = surfaceRadiusAtAtTime(nb, nbState.x, nbState.y, px, py);
-            if (rr < rSurf) break;
+            double rr = hypot(px - eph.x[nbIdx], py - eph.y[nbIdx]);
+            double rSurf = surfaceRadiusAtAtTime(nb, eph.x[nbIdx], eph.y[nbIdx], px, py);
+            if (rr < rSurf) return false;
 
             // Convert to local frame of ref body
-            OrbState refT = onRailsAt(refIdx, T);
-            double relX = px - refT.x;
-            double relY = py - refT.y;
-            double plotX = ref0.x + relX;
-            double plotY = ref0.y + relY;
+            relX = px - eph.x[refIdx];
+            relY = py - eph.y[refIdx];
+            return true;
+        }
 
-            pts.add(new Point2D.Double(plotX, plotY));
+        /** Point the thrust along node n's direction at time t (fixed for the whole burn), limited by fuel. */
+        private void startBurn(ManeuverNode n, double t, double[] y){
+            double sec = Math.min(n.burnSec(), fuel);
+            if (sec <= 0.0) return;
+            eph.evaluate(t);
+            int d = Kepler.dominantBody(eph, y[0], y[1]);
+            n.direction(y[0] - eph.x[d], y[1] - eph.y[d], y[2] - eph.vx[d], y[3] - eph.vy[d], dir);
+            double a = ManeuverNode.accel();
+            f.setThrust(a * dir[0], a * dir[1]);
+            fuel -= sec;
+            burnEnd = t + sec;
         }
 
-        return pts;
+        private void endBurn(){ f.setThrust(0.0, 0.0); burnEnd = Double.NaN; }
+
+        /** End the current sample at event time te (position px, py); the rest up to tEnd comes next. */
+        private boolean stopAtEvent(double te, double tEnd, double px, double py){
+            T = te; event = events.type;
+            if (te < tEnd) pendingEnd = tEnd;
+            if (burning() && te >= burnEnd) endBurn();
+            eph.evaluate(T);
+            relX = px - eph.x[refIdx];
+            relY = py - eph.y[refIdx];
+            return event != Events.Type.SURFACE;
+        }
+
+        private boolean advanceConic(){
+            final double tNext = Double.isNaN(pendingEnd) ? T + segDt : pendingEnd;
+            pendingEnd = Double.NaN; event = null;
+
+            // Planned burns in this interval: impulses at their times, each starting a new segment
+            while (nextNode < nodes.size() && nodes.get(nextNode).t < tNext) {
+                ManeuverNode n = nodes.get(nextNode++);
+                double tn = Math.max(n.t, T);
+                Kepler.propagate(eph.mu[segIdx], segX, segY, segVx, segVy, tn - segT, kep);
+                double dv = Math.min(n.dv(), fuel * ManeuverNode.accel());
+                if (dv <= 0.0) continue;
+                fuel -= dv / ManeuverNode.accel();
+                n.direction(kep[0], kep[1], kep[2], kep[3], dir);
+                T = tn;
+                eph.evaluate(T);
+                beginSegment(segIdx, eph.x[segIdx] + kep[0], eph.y[segIdx] + kep[1],
+                        eph.vx[segIdx] + kep[2] + dv * dir[0], eph.vy[segIdx] + kep[3] + dv * dir[1]);
+            }
+
+            // Events along the exact conic; an SOI crossing starts the next segment right there
+            if (eventMask != 0 && tNext > T) {
+                conic.at(T, y0); conic.at(tNext, y1);
+                if (events.find(eph, conic, T, y0, tNext, y1, eventMask)) {
+                    double[] e = events.state;
+                    boolean more = stopAtEvent(events.t, tNext, e[0], e[1]);
+                    if (event == Events.Type.SOI) beginSegment(Kepler.dominantBody(eph, e[0], e[1]), e[0], e[1], e[2], e[3]);
+                    return more;
+                }
+            }
+
+            T = tNext;
+            Kepler.propagate(eph.mu[segIdx], segX, segY, segVx, segVy, T - segT, kep);
+            eph.evaluate(T);
+            double px = eph.x[segIdx] + kep[0], py = eph.y[segIdx] + kep[1];
+
+            // Surface impact on the dominant body
+            State.Body sb = s.bodies.get(segIdx);
+            if (hypot(kep[0], kep[1]) < surfaceRadiusAtAtTime(sb, eph.x[segIdx], eph.y[segIdx], px, py)) return false;
+
+            // Sphere-of-influence transitions: out to the parent, or down into a child
+            int next = Kepler.dominantBody(eph, px, py);
+            if (next != segIdx) {
+                double pvx = eph.vx[segIdx] + kep[2], pvy = eph.vy[segIdx] + kep[3];
+                beginSegment(next, px, py, pvx, pvy);
+            }
+
+            relX = px - eph.x[refIdx];
+            relY = py - eph.y[refIdx];
+            return true;
+        }
+
+        /** Start a conic around body idx from an absolute state at time T (ephemeris evaluated at T). */
+        private void beginSegment(int idx, double px, double py, double pvx, double pvy){
+            segIdx = idx; segT = T;
+            segX = px - eph.x[idx]; segY = py - eph.y[idx];
+            segVx = pvx - eph.vx[idx]; segVy = pvy - eph.vy[idx];
+            double period = Kepler.period(eph.mu[idx], segX, segY, segVx, segVy);
+            segDt = Math.min(dt, period / Config.CONIC_SAMPLES_PER_ORBIT);
+        }
+
+        /** World-frame state on the current segment's conic at any time (for the event search). */
+        private final class ConicPath implements Events.Path {
+            private final double[] k = new double[4], c = new double[4];
+
+            @Override public void at(double t, double[] out){
+                Kepler.propagate(eph.mu[segIdx], segX, segY, segVx, segVy, t - segT, k);
+                eph.stateAt(segIdx, t, c);
+                out[0] = c[0] + k[0]; out[1] = c[1] + k[1]; out[2] = c[2] + k[2]; out[3] = c[3] + k[3];
+            }
+        }
+
+        /** Everything advance() depends on, taken between samples outside a burn. */
+        public static final class Checkpoint {
+            double T, relX, relY, hNext, fuel, pendingEnd;
+            final double[] y = new double[4];
+            int segIdx;
+            double segT, segX, segY, segVx, segVy, segDt;
+
+            /** Sim time of the sample the checkpoint was taken at. */
+            public double time(){ return T; }
+        }
+
+        /** Save the state after the last sample into c; must not be called while burning(). */
+        public void save(Checkpoint c){
+            c.T = T; c.relX = relX; c.relY = relY; c.hNext = f.hNext; c.fuel = fuel; c.pendingEnd = pendingEnd;
+            System.arraycopy(f.y, 0, c.y, 0, 4);
+            c.segIdx = segIdx; c.segT = segT; c.segX = segX; c.segY = segY; c.segVx = segVx; c.segVy = segVy; c.segDt = segDt;
+        }
+
+        /**
+         * Continue from a checkpoint of this propagator's current run with a new node list: nodes
+         * at or after the checkpoint's time are flown, earlier ones are assumed already done.
+         */
+        public void restore(Checkpoint c, List<ManeuverNode> newNodes){
+            T = c.T; relX = c.relX; relY = c.relY; f.hNext = c.hNext; fuel = c.fuel; pendingEnd = c.pendingEnd;
+            System.arraycopy(c.y, 0, f.y, 0, 4);
+            segIdx = c.segIdx; segT = c.segT; segX = c.segX; segY = c.segY; segVx = c.segVx; segVy = c.segVy; segDt = c.segDt;
+            nodes = newNodes; nextNode = firstNodeAtOrAfter(newNodes, T);
+            endBurn();
+            event = null;
+            events.reset();
+            eph.evaluate(T);
+        }
+
+        private static int firstNodeAtOrAfter(List<ManeuverNode> nodes, double t){
+            int i = 0;
+            while (i < nodes.size() && nodes.get(i).t < t) i++;
+            return i;
+        }
     }
 }
@@ -0,0 +1,165 @@
+// File: src/rocket/Porkchop.java
+package rocket;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Porkchop plots: Lambert transfers between two bodies that orbit the same center, over a grid
+ * of departure × arrival times. Each cell stores the departure and arrival excess speeds
+ * (|v_transfer - v_body| at either end, the delta-v a patched-conic transfer needs on top of
+ * escape/capture).
+ *
+ * Body states come from the on-rails Ephemeris, evaluated once per grid row/column up front;
+ * the rows are then solved in parallel on the common fork/join pool (Lambert is allocation-free
+ * and needs no shared state). The departure window spans one synodic period, the flight time
+ * PORK_TOF_MIN..PORK_TOF_MAX × the Hohmann time.
+ *
+ * Grids are cached per body pair and reused while at least half of their departure window is
+ * still ahead; best(now) picks the cheapest transfer that has not departed yet.
+ *
+ * {@code java rocket.Porkchop Earth Mars} prints the best transfer and the solve rate.
+ */
+public final class Porkchop {
+    private Porkchop(){}
+
+    private static final ConcurrentHashMap<Long, Grid> CACHE = new ConcurrentHashMap<>();
+
+    /** One departure × arrival grid; cell (i, j) is index i * na + j. */
+    public static final class Grid {
+        public final Catalog catalog;
+        public final int from, to, center, nd, na;
+        public final double depT0, depStep, arrT0, arrStep;
+        /** Excess speed at departure/arrival (m/s), NaN where arrival is not after departure or there is no solution. */
+        public final double[] dvDep, dvArr;
+        public double wallSec;
+
+        final boolean ccw;
+        final double[] dep, arr;     // body states relative to the center per row/column: x, y, vx, vy
+
+        Grid(Catalog catalog, int from, int to, int center, boolean ccw, double depT0, double depStep, int nd,
+             double arrT0, double arrStep, int na){
+            this.catalog = catalog; this.from = from; this.to = to; this.center = center; this.ccw = ccw;
+            this.depT0 = depT0; this.depStep = depStep; this.nd = nd;
+            this.arrT0 = arrT0; this.arrStep = arrStep; this.na = na;
+            dvDep = new double[nd * na]; dvArr = new double[nd * na];
+            dep = new double[4 * nd]; arr = new double[4 * na];
+        }
+
+        public double depTime(int cell){ return depT0 + (cell / na) * depStep; }
+        public double arrTime(int cell){ return arrT0 + (cell % na) * arrStep; }
+        public double total(int cell){ return dvDep[cell] + dvArr[cell]; }
+
+        /** Cheapest cell (total delta-v) departing at or after now, or -1. */
+        public int best(double now){
+            int best = -1;
+            int i0 = Math.max(0, (int) Math.ceil((now - depT0) / depStep));
+            for (int c = i0 * na; c < nd * na; c++) {
+                double t = total(c);
+                if (t == t && (best < 0 || t < total(best))) best = c;
+            }
+            return best;
+        }
+
+        /** Full transfer for a cell (re-solved; cheap), or null if the cell has no solution. */
+        public Transfer transfer(int cell){
+            if (cell < 0 || cell >= nd * na || !(total(cell) == total(cell))) return null;
+            int i = cell / na, j = cell % na;
+            double[] v = new double[4];
+            if (!Lambert.solve(catalog.mu[center], dep[4*i], dep[4*i+1], arr[4*j], arr[4*j+1],
+                    arrTime(cell) - depTime(cell), ccw, v)) return null;
+            return new Transfer(this, cell, dep[4*i], dep[4*i+1], v[0], v[1], arr[4*j], arr[4*j+1]);
+        }
+    }
+
+    /** A chosen transfer: departure/arrival times, the center-relative start state and the end point. */
+    public static final class Transfer {
+        public final Grid grid;
+        public final int cell;
+        public final double depT, arrT, dvDep, dvArr;
+        public final double x1, y1, vx1, vy1, x2, y2;
+
+        Transfer(Grid g, int cell, double x1, double y1, double vx1, double vy1, double x2, double y2){
+            grid = g; this.cell = cell;
+            depT = g.depTime(cell); arrT = g.arrTime(cell); dvDep = g.dvDep[cell]; dvArr = g.dvArr[cell];
+            this.x1 = x1; this.y1 = y1; this.vx1 = vx1; this.vy1 = vy1; this.x2 = x2; this.y2 = y2;
+        }
+
+        public double tof(){ return arrT - depT; }
+    }
+
+    /** Cached grid for from -> to covering now, computing it if needed. Null if the bodies do not share a center. */
+    public static Grid grid(Catalog cat, int from, int to, double now){
+        long key = ((long) from << 32) | (to & 0xFFFFFFFFL);
+        Grid g = CACHE.get(key);
+        if (g != null && g.catalog == cat && now >= g.depT0 && now <= g.depT0 + 0.5 * g.depStep * (g.nd - 1)) return g;
+        g = compute(cat, from, to, now, Config.PORK_DEP_STEPS, Config.PORK_ARR_STEPS);
+        if (g != null) CACHE.put(key, g);
+        return g;
+    }
+
+    /** Solve a fresh nd × na grid whose departure window starts at t0. Null if the bodies do not share a center. */
+    public static Grid compute(Catalog cat, int from, int to, double t0, int nd, int na){
+        final int center = cat.parent[from];
+        if (from == to || center < 0 || cat.parent[to] != center || cat.orbitMode[from] == 0 || cat.orbitMode[to] == 0) return null;
+        final double mu = cat.mu[center];
+        final double a1 = Math.sqrt(cat.orbitA[from] * cat.orbitB[from]), a2 = Math.sqrt(cat.orbitA[to] * cat.orbitB[to]);
+        final double w1 = cat.omega[from], w2 = cat.omega[to];
+
+        // Window: one synodic period of departures, flights around the Hohmann time
+        final double hohmann = Math.PI * Math.sqrt(Math.pow(0.5 * (a1 + a2), 3) / mu);
+        final double synodic = Math.min(2.0 * Math.PI / Math.max(Math.abs(w1 - w2), 1e-30), Config.PORK_DEP_SPAN_MAX);
+        final double tofMin = Config.PORK_TOF_MIN * hohmann, tofMax = Config.PORK_TOF_MAX * hohmann;
+        nd = Math.max(2, nd); na = Math.max(2, na);
+        final double depStep = synodic / (nd - 1);
+        final double arrT0 = t0 + tofMin, arrStep = (synodic + tofMax - tofMin) / (na - 1);
+
+        final Grid g = new Grid(cat, from, to, center, w1 >= 0.0, t0, depStep, nd, arrT0, arrStep, na);
+        long start = System.nanoTime();
+        Ephemeris eph = new Ephemeris(cat);
+        for (int i = 0; i < nd; i++) { eph.evaluate(g.depTime(i * na)); relState(eph, from, center, g.dep, i); }
+        for (int j = 0; j < na; j++) { eph.evaluate(g.arrTime(j)); relState(eph, to, center, g.arr, j); }
+
+        final int fnd = nd, fna = na;
+        IntStream.range(0, fnd).parallel().forEach(i -> {
+            final double[] v = new double[4], dep = g.dep, arr = g.arr;
+            final double td = g.depTime(i * fna);
+            for (int j = 0; j < fna; j++) {
+                int c = i * fna + j;
+                double tof = g.arrTime(j) - td;
+                if (tof < tofMin || tof > tofMax
+                        || !Lambert.solve(mu, dep[4*i], dep[4*i+1], arr[4*j], arr[4*j+1], tof, g.ccw, v)) {
+                    g.dvDep[c] = Double.NaN; g.dvArr[c] = Double.NaN;
+                    continue;
+                }
+                g.dvDep[c] = Math.hypot(v[0] - dep[4*i+2], v[1] - dep[4*i+3]);
+                g.dvArr[c] = Math.hypot(v[2] - arr[4*j+2], v[3] - arr[4*j+3]);
+            }
+        });
+        g.wallSec = (System.nanoTime() - start) / 1e9;
+        return g;
+    }
+
+    private static void relState(Ephemeris eph, int b, int c, double[] out, int k){
+        out[4*k]   = eph.x[b] - eph.x[c];   out[4*k+1] = eph.y[b] - eph.y[c];
+        out[4*k+2] = eph.vx[b] - eph.vx[c]; out[4*k+3] = eph.vy[b] - eph.vy[c];
+    }
+
+    public static void main(String[] args){
+        System.setProperty("java.awt.headless", "true");
+        if (args.length != 2) { System.err.println("usage: java rocket.Porkchop <from body> <to body>"); System.exit(2); }
+        Catalog cat = Catalog.current();
+        int from = cat.indexOf(args[0]), to = cat.indexOf(args[1]);
+        if (from < 0 || to < 0) { System.err.println("Porkchop: unknown body " + (from < 0 ? args[0] : args[1])); System.exit(1); }
+        compute(cat, from, to, 0.0, Config.PORK_DEP_STEPS, Config.PORK_ARR_STEPS);   // warm-up
+        Grid g = compute(cat, from, to, 0.0, Config.PORK_DEP_STEPS, Config.PORK_ARR_STEPS);
+        if (g == null) { System.err.println("Porkchop: " + args[0] + " and " + args[1] + " do not orbit the same body"); System.exit(1); }
+        Transfer t = g.transfer(g.best(0.0));
+        System.out.println(String.format(Locale.ROOT, "%d x %d grid in %.1f ms (%.0f solves/s)",
+                g.nd, g.na, g.wallSec * 1e3, g.nd * g.na / Math.max(g.wallSec, 1e-9)));
+        if (t == null) { System.out.println("no transfer in the window"); return; }
+        System.out.println(String.format(Locale.ROOT, "best: depart t+%.1f d, flight %.1f d, dv %.0f + %.0f m/s",
+                t.depT / 86400.0, t.tof() / 86400.0, t.dvDep, t.dvArr));
+    }
+}
@@ -0,0 +1,147 @@
+// File: src/rocket/PredictionCache.java
+package rocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps the predicted trajectory between frames instead of re-integrating it on every paint.
+ * Samples are stored relative to the reference body in a ring buffer; as sim time advances
+ * the expired head is dropped and only the tail is extended to cover the horizon again.
+ *
+ * The whole path is rebuilt only when State.predEpoch changes (thrust, rotation with throttle,
+ * collision, reset, horizon change), when the integrator, mode or sample spacing changes, or when
+ * the rocket's nearest body is no longer the reference body.
+ *
+ * Editing maneuver nodes does not rebuild: the propagator is checkpointed every
+ * Config.PRED_CHECKPOINT_EVERY samples (outside burns), so the cache rewinds to the last
+ * checkpoint before the earliest changed node, drops the samples after it and extends again.
+ *
+ * Samples that the propagator cut short at an event (periapsis, SOI change, ...) are tagged with
+ * it; a path that ends on the ground ends with the exact impact sample.
+ *
+ * Only maneuver nodes are flown as burns. A live manual burn (throttle held, no node) is not
+ * extrapolated, since nothing says when it will stop: the path is the coast from the current
+ * state, i.e. where the rocket goes if the engine is cut now. Every thrusting step bumps the
+ * epoch, so while the engine runs the path is rebuilt and moves from frame to frame.
+ */
+public final class PredictionCache {
+    private final Physics.Propagator prop = new Physics.Propagator();
+    private final int cap = Config.PRED_POINTS_MAX + 1;
+    private final double[] ts = new double[cap], rxs = new double[cap], rys = new double[cap];
+    private final Events.Type[] evs = new Events.Type[cap];    // event a sample stopped at, or null
+    private int head = 0, size = 0;
+    private boolean ended = false;
+
+    private long epoch = Long.MIN_VALUE;
+    private Integrator integ = null;
+    private PredictionMode mode = null;
+    private double dt = 0.0;
+    private int refIdx = -1;
+    private long version = 0;     // bumped on every change to the samples
+    private List<ManeuverNode> nodes = List.of();
+
+    // Propagator checkpoints in time order; spare ones are reused
+    private final ArrayList<Physics.Propagator.Checkpoint> cps = new ArrayList<>(), spare = new ArrayList<>();
+    private int sinceCp = 0;
+
+    /** Bring the cache up to date for this state; cheap when nothing relevant changed. */
+    public void update(State s){ update(s, () -> false); }
+
+    /**
+     * As {@link #update(State)}, but polls {@code cancel} while integrating and returns false
+     * if it gave up early. A cancelled cache stays consistent: the next update carries on.
+     */
+    public boolean update(State s, BooleanSupplier cancel){
+        final double now = s.simTimeSec;
+        final double wantDt = Physics.predDt(s.predHorizonSec, Config.BASE_PRED_DT);
+        if (s.predEpoch != epoch || s.integrator != integ || s.predMode != mode || wantDt != dt
+                || s.nearestBodyIdx(s.rx, s.ry) != refIdx || (size > 0 && ts[head] > now + dt)) {
+            rebuild(s, wantDt);
+        } else if (s.nodes != nodes) {
+            resumeAt(changedFrom(nodes, s.nodes), s.nodes);
+        }
+
+        // Drop samples the simulation has already passed
+        while (size > 0 && ts[head] < now) { head = (head + 1) % cap; size--; version++; }
+        while (cps.size() > 1 && cps.get(1).time() <= now) spare.add(cps.remove(0)); // keep the last one at or before now
+
+        // Extend the tail to cover the horizon
+        final double until = now + s.predHorizonSec;
+        int n = 0;
+        while (!ended && size < cap && (size == 0 || ts[idx(size - 1)] < until)) {
+            if ((++n & 63) == 0 && cancel.getAsBoolean()) return false;
+            ended = !prop.advance();
+            if (ended && prop.event != Events.Type.SURFACE) break;
+            int k = idx(size++);
+            ts[k] = prop.T; rxs[k] = prop.relX; rys[k] = prop.relY; evs[k] = prop.event;
+            version++;
+            if (ended) break;
+            if (++sinceCp >= Config.PRED_CHECKPOINT_EVERY && !prop.burning()) checkpoint();
+        }
+        return true;
+    }
+
+    private void rebuild(State s, double wantDt){
+        epoch = s.predEpoch; integ = s.integrator; mode = s.predMode; dt = wantDt; nodes = s.nodes;
+        prop.start(s, dt);
+        refIdx = prop.refIdx;
+        head = 0; size = 0; ended = false;
+        version++;
+        spare.addAll(cps); cps.clear();
+        checkpoint();
+    }
+
+    private void checkpoint(){
+        Physics.Propagator.Checkpoint c = spare.isEmpty() ? new Physics.Propagator.Checkpoint() : spare.remove(spare.size() - 1);
+        prop.save(c);
+        cps.add(c);
+        sinceCp = 0;
+    }
+
+    /** Earliest time at which two node lists can differ (+Inf if they are equal). */
+    private static double changedFrom(List<ManeuverNode> a, List<ManeuverNode> b){
+        int n = Math.min(a.size(), b.size()), i = 0;
+        while (i < n && a.get(i) == b.get(i)) i++;
+        double t = Double.POSITIVE_INFINITY;
+        if (i < a.size()) t = Math.min(t, a.get(i).t);
+        if (i < b.size()) t = Math.min(t, b.get(i).t);
+        return t;
+    }
+
+    /** Rewind to the last checkpoint at or before tc and fly the new nodes from there. */
+    private void resumeAt(double tc, List<ManeuverNode> newNodes){
+        nodes = newNodes;
+        int c = cps.size() - 1;
+        while (c > 0 && cps.get(c).time() > tc) c--;
+        Physics.Propagator.Checkpoint cp = cps.get(c);   // the first one is at or before the current time
+        while (cps.size() > c + 1) spare.add(cps.remove(cps.size() - 1));
+        prop.restore(cp, newNodes);
+        while (size > 0 && ts[idx(size - 1)] > cp.time()) size--;
+        ended = false;
+        sinceCp = 0;
+        version++;
+    }
+
+    private int idx(int i){ return (head + i) % cap; }
+
+    /** Changes whenever the samples do, so callers can skip re-exporting an unchanged path. */
+    public long version(){ return version; }
+    /** Number of cached samples at or after the current time. */
+    public int size(){ return size; }
+    /** Body the samples are relative to (plot at that body's current center + rel). */
+    public int refIdx(){ return refIdx; }
+    public double time(int i){ return ts[idx(i)]; }
+    public double relX(int i){ return rxs[idx(i)]; }
+    public double relY(int i){ return rys[idx(i)]; }
+    public Events.Type event(int i){ return evs[idx(i)]; }
+
+    /** Copy the current samples out as an immutable path for another thread to draw. */
+    public PredictionWorker.Path export(long epoch){
+        double[] t = new double[size], x = new double[size], y = new double[size];
+        Events.Type[] e = new Events.Type[size];
+        for (int i = 0; i < size; i++) { int k = idx(i); t[i] = ts[k]; x[i] = rxs[k]; y[i] = rys[k]; e[i] = evs[k]; }
+        return new PredictionWorker.Path(epoch, refIdx, t, x, y, e);
+    }
+}
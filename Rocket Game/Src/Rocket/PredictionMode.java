@@ -0,0 +1,22 @@
+// File: src/rocket/PredictionMode.java
+package rocket;
+
+/** How the trajectory predictor samples the future path. */
+public enum PredictionMode {
+    /** Integrate gravity from every body with State.integrator (exact n-body, bounded horizon). */
+    NUMERIC("Numeric", Config.PRED_HORIZON_MAX),
+    /** Patched conics: analytic Kepler arcs around the dominant body, switching at SOI boundaries. */
+    CONIC("Patched conic", Config.PRED_HORIZON_CONIC_MAX);
+
+    private final String label;
+    private final int horizonMax;
+
+    PredictionMode(String label, int horizonMax){ this.label = label; this.horizonMax = horizonMax; }
+
+    public String label(){ return label; }
+
+    /** Largest predHorizonSec this mode accepts. */
+    public int horizonMax(){ return horizonMax; }
+
+    public PredictionMode next(){ PredictionMode[] all = values(); return all[(ordinal() + 1) % all.length]; }
+}
@@ -0,0 +1,91 @@
+// File: src/rocket/PredictionWorker.java
+package rocket;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the trajectory predictor off the EDT. The renderer hands in the State snapshot it is
+ * drawing; a single background thread keeps a PredictionCache up to date from the newest
+ * snapshot and publishes each finished path atomically. Drawing always uses the latest
+ * complete Path, so a long rebuild after a burn never blocks a frame.
+ *
+ * A job in progress is abandoned as soon as a newer snapshot with different prediction
+ * inputs (epoch, integrator, mode, horizon, nodes) arrives.
+ */
+public final class PredictionWorker implements Runnable {
+
+    /** Immutable prediction result: sample times and positions relative to body refIdx. */
+    public static final class Path {
+        public final long epoch;
+        public final int refIdx;
+        public final double[] t, relX, relY;
+        /** Event each sample stopped at (Propagator.event), or null. */
+        public final Events.Type[] event;
+
+        Path(long epoch, int refIdx, double[] t, double[] relX, double[] relY, Events.Type[] event){
+            this.epoch = epoch; this.refIdx = refIdx; this.t = t; this.relX = relX; this.relY = relY; this.event = event;
+        }
+
+        public int size(){ return t.length; }
+
+        /** First sample index at or after sim time now (the path may lag the renderer by a frame). */
+        public int firstAtOrAfter(double now){
+            int lo = 0, hi = t.length;
+            while (lo < hi) { int mid = (lo + hi) >>> 1; if (t[mid] < now) lo = mid + 1; else hi = mid; }
+            return lo;
+        }
+    }
+
+    private final PredictionCache cache = new PredictionCache();
+    private final AtomicReference<State> pending = new AtomicReference<>();
+    private final AtomicReference<Path> latest = new AtomicReference<>();
+    private Thread thread;
+    private State working;          // snapshot currently being predicted (worker thread only)
+    private long exportedVersion = -1;
+
+    /** Queue the newest snapshot; returns immediately. Older queued snapshots are superseded. */
+    public void request(State snap){
+        pending.set(snap);
+        Thread t = thread;
+        if (t == null) t = startThread();
+        LockSupport.unpark(t);
+    }
+
+    /** Latest finished prediction, or null before the first one completes. */
+    public Path latest(){ return latest.get(); }
+
+    private synchronized Thread startThread(){
+        if (thread == null) {
+            Thread t = new Thread(this, "rocket-predict");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            thread = t;
+            t.start();
+        }
+        return thread;
+    }
+
+    @Override public void run(){
+        while (true) {
+            State snap = pending.getAndSet(null);
+            if (snap == null) { LockSupport.park(this); continue; }
+            working = snap;
+            if (!cache.update(snap, this::stale)) continue; // superseded: pick up the newer snapshot
+            if (cache.version() != exportedVersion) {
+                exportedVersion = cache.version();
+                latest.set(cache.export(snap.predEpoch));
+            }
+        }
+    }
+
+    /** True when a queued snapshot would invalidate the one being worked on. */
+    private boolean stale(){
+        State next = pending.get();
+        return next != null && (next.predEpoch != working.predEpoch
+                || next.integrator != working.integrator
+                || next.predMode != working.predMode
+                || next.predHorizonSec != working.predHorizonSec
+                || next.nodes != working.nodes);
+    }
+}
@@ -12,7 +12,7 @@ public final class Render {
         g2.setColor(Color.BLACK);
         g2.fillRect(0, 0, v.getWidth(), v.getHeight());
 
-        // Stars
+        // Stars (stars, orbits and labels are cached layers, see Layer)
         DrawStars.draw(g2, v, c);
 
         // NEW: Orbits (behind bodies)
@@ -21,6 +21,18 @@ public final class Render {
         // Bodies (surface + halos / horizons)
         DrawBodies.renderBodies(g2, v, s, c);
 
+        // Body labels
+        DrawBodies.renderLabels(g2, v, s);
+
+        // Other vessels
+        DrawFleet.draw(g2, v, s);
+
+        // Monte Carlo dispersion envelope (M)
+        DrawDispersion.draw(g2, v, s);
+
+        // Planned interplanetary transfer and its porkchop plot (L)
+        DrawTransfer.draw(g2, v, s);
+
         // Predictive trajectory
         DrawPrediction.draw(g2, v, s, c);
 
@@ -0,0 +1,140 @@
+// File: src/rocket/RenderLoop.java
+package rocket;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering: a dedicated thread draws the panel's latest snapshot with Render.drawAll into
+ * an accelerated back buffer and presents it itself, paced to the display's refresh rate,
+ * instead of waiting for repaint() to be coalesced and scheduled on the EDT.
+ *
+ * The back buffer is a BufferStrategy on the panel's window (page flipping or an accelerated
+ * blit, whichever the pipeline offers) or, if the window cannot create one, a VolatileImage copied
+ * onto the panel. Where neither works (headless, no window) start() returns null and SimPanel
+ * keeps painting passively. Off unless Config.RENDER_MODE or -Drocket.render is "active".
+ *
+ * Rendering stays on one thread at a time: this one while it runs (SimPanel.paintComponent then
+ * draws nothing), the EDT otherwise. Camera edits from the EDT reach it through SimPanel's
+ * compare-and-set camera.
+ */
+public final class RenderLoop implements Runnable {
+  private final SimPanel panel;
+  private final Window window;
+  private BufferStrategy strategy;          // null: VolatileImage path
+  private VolatileImage back;
+  private final long frameNs;
+  private volatile boolean running = true;
+  private Thread thread;
+  private int failures = 0;
+
+  private RenderLoop(SimPanel panel, Window window, BufferStrategy strategy, long frameNs){
+    this.panel = panel; this.window = window; this.strategy = strategy; this.frameNs = frameNs;
+  }
+
+  /** Start active rendering for a showing panel; null if it is disabled or unsupported here. Call on the EDT. */
+  static RenderLoop start(SimPanel panel){
+    if (!"active".equalsIgnoreCase(System.getProperty("rocket.render", Config.RENDER_MODE))) return null;
+    if (GraphicsEnvironment.isHeadless() || !panel.isDisplayable()) return null;
+    Window w = SwingUtilities.getWindowAncestor(panel);
+    if (w == null) return null;
+
+    BufferStrategy bs = null;
+    try {
+      w.setIgnoreRepaint(true);
+      w.createBufferStrategy(2);
+      bs = w.getBufferStrategy();
+    } catch (RuntimeException e) {
+      System.err.println("Active rendering: no buffer strategy (" + e.getMessage() + "), using a volatile back buffer");
+    }
+    RenderLoop r = new RenderLoop(panel, w, bs, refreshNs(panel.getGraphicsConfiguration()));
+    r.thread = new Thread(r, "rocket-render");
+    r.thread.setDaemon(true);
+    r.thread.start();
+    return r;
+  }
+
+  /** Frame period: the display's refresh rate when it reports one, Config.FPS otherwise. */
+  private static long refreshNs(GraphicsConfiguration gc){
+    int hz = DisplayMode.REFRESH_RATE_UNKNOWN;
+    try { if (gc != null) hz = gc.getDevice().getDisplayMode().getRefreshRate(); } catch (RuntimeException ignored) {}
+    if (hz < Config.RENDER_MIN_HZ) hz = Config.FPS;
+    return 1_000_000_000L / hz;
+  }
+
+  /** Nanoseconds between presented frames (SimLoop publishes snapshots at this rate). */
+  public long frameNs(){ return frameNs; }
+
+  public void stop(){
+    running = false;
+    Thread t = thread;
+    if (t != null) t.interrupt();
+  }
+
+  @Override public void run(){
+    long next = System.nanoTime();
+    while (running) {
+      if (panel.isShowing() && panel.getWidth() > 0 && panel.getHeight() > 0) {
+        try {
+          if (strategy != null) renderStrategy(); else renderVolatile();
+          failures = 0;
+        } catch (RuntimeException e) {
+          // Buffers can go away under us (window closing, display change); a strategy that keeps
+          // failing is given up for the volatile path
+          if (!running) break;
+          back = null;
+          if (strategy != null && ++failures >= 3) strategy = null;
+        }
+      }
+      next += frameNs;
+      long wait = next - System.nanoTime();
+      if (wait > 0) LockSupport.parkNanos(wait);
+      else if (wait < -frameNs) next = System.nanoTime();     // fell behind: skip, don't burst
+    }
+  }
+
+  private void renderStrategy(){
+    final Point at = SwingUtilities.convertPoint(panel, 0, 0, window);
+    do {
+      do {
+        Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+        try {
+          g.translate(at.x, at.y);
+          g.clipRect(0, 0, panel.getWidth(), panel.getHeight());
+          draw(g);
+        } finally {
+          g.dispose();
+        }
+      } while (strategy.contentsRestored());
+      strategy.show();
+    } while (strategy.contentsLost());
+    Toolkit.getDefaultToolkit().sync();
+  }
+
+  private void renderVolatile(){
+    final GraphicsConfiguration gc = panel.getGraphicsConfiguration();
+    if (gc == null) return;
+    final int w = panel.getWidth(), h = panel.getHeight();
+    do {
+      if (back == null || back.getWidth() != w || back.getHeight() != h || back.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+        if (back != null) back.flush();
+        back = gc.createCompatibleVolatileImage(w, h);
+      }
+      Graphics2D g = back.createGraphics();
+      try { draw(g); } finally { g.dispose(); }
+      Graphics pg = panel.getGraphics();
+      if (pg == null) return;
+      try { pg.drawImage(back, 0, 0, null); } finally { pg.dispose(); }
+    } while (back.contentsLost());
+    Toolkit.getDefaultToolkit().sync();
+  }
+
+  private void draw(Graphics2D g){
+    State vs = panel.view();
+    panel.updateCamera(vs);
+    Render.drawAll(g, panel, vs, null);
+  }
+}
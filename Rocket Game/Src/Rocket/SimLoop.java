@@ -0,0 +1,132 @@
+// File: src/rocket/SimLoop.java
+package rocket;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulation thread. Feeds real time to an {@link Engine}, which scales it by the time warp and
+ * consumes it in fixed sub-steps (the selected integrator's liveDt), so physics accuracy no
+ * longer depends on frame rate. Once per frame a snapshot of State is published to the panel,
+ * which renders it on its render thread (or on the EDT when rendering passively); the snapshot is
+ * interpolated between the last two sub-steps so motion stays smooth when a sub-step is longer
+ * than a frame.
+ *
+ * The live State is guarded by its own monitor: this thread holds it while stepping and
+ * Input holds it while mutating, so key/mouse handlers never see a half-finished step.
+ *
+ * With recording on (Config.REC_ENABLED or -Drocket.record=true) every tick is appended to a
+ * {@link FlightRecorder} log. In replay mode the engine is not
+ * stepped; a {@link FlightReplay} of the last flight drives State at the current time warp
+ * instead, and leaving replay resumes flying from wherever playback stopped (as a new flight).
+ */
+public final class SimLoop implements Runnable {
+  private final State s;
+  private final SimPanel panel;
+  private volatile boolean running = false;
+  private Thread thread;
+
+  private final Engine engine;
+  private long lastRepaintNs = 0;
+
+  // Recording (null when off) and playback; guarded by the lock on s like the State itself
+  private FlightRecorder recorder = Boolean.parseBoolean(System.getProperty("rocket.record", String.valueOf(Config.REC_ENABLED)))
+      ? new FlightRecorder(Paths.get(System.getProperty("rocket.flights", Config.REC_DIR))) : null;
+  private FlightReplay replay;
+
+  public SimLoop(State s, SimPanel panel){ this.s = s; this.panel = panel; this.engine = new Engine(s); }
+
+  public synchronized void start(){
+    if (running) return;
+    running = true;
+    thread = new Thread(this, "rocket-sim");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public synchronized void stop(){
+    running = false;
+    if (thread != null) { thread.interrupt(); thread = null; }
+  }
+
+  @Override public void run(){
+    final long tickNs = 1_000_000_000L / Config.SIM_TICK_HZ;
+    long last = System.nanoTime();
+    long next = last + tickNs;
+
+    while (running) {
+      long now = System.nanoTime();
+      double dtReal = Math.min((now - last) / 1e9, Config.SIM_MAX_FRAME_SEC);
+      last = now;
+
+      // Snapshots copy every body, so only take one when a frame is due (large catalogs)
+      boolean frameDue = now - lastRepaintNs >= panel.frameNs();
+      State snap = null;
+      synchronized (s) {
+        if (replay != null) playback(dtReal);
+        else { engine.tick(dtReal); record(); }
+        if (frameDue) snap = engine.interpolatedSnapshot();
+      }
+      if (frameDue) { lastRepaintNs = now; panel.publish(snap); panel.requestFrame(); }
+
+      long wait = next - System.nanoTime();
+      if (wait > 0) LockSupport.parkNanos(wait);
+      next += tickNs;
+      if (next < System.nanoTime() - tickNs) next = System.nanoTime() + tickNs; // fell behind: don't burst
+    }
+  }
+
+  /**
+   * Enter replay of the flight recorded so far (from its start), or leave it. Returns false if
+   * there is nothing to replay. Call while holding the lock on the State.
+   */
+  public boolean toggleReplay(){
+    if (replay != null) { stopReplay(); return true; }
+    if (recorder == null || recorder.file() == null || recorder.count() < 2) return false;
+    try {
+      recorder.close();
+      replay = FlightReplay.open(recorder.file());
+    } catch (IOException e) {
+      System.err.println("Could not replay " + recorder.file() + ": " + e.getMessage());
+      return false;
+    }
+    replay.apply(s);
+    s.replay = true;
+    s.predEpoch++;
+    return true;
+  }
+
+  /** Leave replay mode; the next tick flies on from the replayed state. Call while holding the lock. */
+  public void stopReplay(){
+    if (replay == null) return;
+    try { replay.close(); } catch (IOException ignored) {}
+    replay = null;
+    s.replay = false;
+    s.predEpoch++;
+  }
+
+  /** Jump playback by dSec of sim time. Call while holding the lock. */
+  public void seekReplay(double dSec){
+    if (replay == null) return;
+    replay.seek(replay.time() + dSec);
+    replay.apply(s);
+    s.predEpoch++;
+  }
+
+  private void playback(double dtReal){
+    if (!s.paused && !replay.advance(dtReal * s.timeScale)) s.paused = true; // hold the last frame at the end
+    replay.apply(s);
+  }
+
+  private void record(){
+    if (recorder == null) return;
+    try {
+      recorder.record(s);
+    } catch (IOException e) {
+      System.err.println("Flight recorder stopped: " + e.getMessage());
+      try { recorder.close(); } catch (IOException ignored) {}
+      recorder = null;
+    }
+  }
+}
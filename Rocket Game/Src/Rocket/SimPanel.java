@@ -3,15 +3,37 @@ package rocket;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.*;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class SimPanel extends JComponent implements ActionListener {
+public class SimPanel extends JComponent {
   private final State s;
-  private final Timer timer;
-  private long lastNs = System.nanoTime();
+  private final SimLoop loop;
+  private volatile State view;    // latest snapshot published by the sim thread
+  private volatile RenderLoop render;   // active rendering, or null for repaint() on the EDT
+
+  /**
+   * Floating origin: the camera is an anchor point (the followed body's center, or the center of
+   * the rocket's frame body) plus a small offset from it, so positions given relative to a body
+   * (w2sX(base, off)) never pass through the absolute coordinates of a planet millions of km out.
+   * Immutable; edits swap in a new one.
+   */
+  private static final class Cam {
+    final double ox, oy, dx, dy, ppm;
+    final int follow;               // -1 = none; else index in s.bodies
+    Cam(double ox, double oy, double dx, double dy, double ppm, int follow){
+      this.ox = ox; this.oy = oy; this.dx = dx; this.dy = dy; this.ppm = ppm; this.follow = follow;
+    }
+    Cam anchored(double ox, double oy, double dx, double dy){ return new Cam(ox, oy, dx, dy, ppm, follow); }
+    Cam zoomed(double ppm){ return new Cam(ox, oy, dx, dy, clampZoom(ppm), follow); }
+    Cam following(int idx){ return new Cam(ox, oy, dx, dy, ppm, idx); }
+  }
 
-  private double camX = 0, camY = 0, pxPerM = Config.H / (3.0 * (Config.BODY_H + Config.CONE_H));
-  private int followBodyIdx = -1; // -1 = none; else index in s.bodies
+  // The camera is edited from the EDT (Input) and by the drawing thread (follow), always by
+  // compare-and-set so neither loses the other's edit. Each frame draws with the copy taken in
+  // updateCamera, so a frame never sees a half-applied edit; transforms and the accessors use it.
+  private final AtomicReference<Cam> cam = new AtomicReference<>(
+      new Cam(0, 0, 0, 0, Config.H / (3.0 * (Config.BODY_H + Config.CONE_H)), -1));
+  private volatile Cam drawn = cam.get();
 
   public SimPanel(State s) {
     this.s = s;
@@ -19,107 +41,136 @@ public class SimPanel extends JComponent implements ActionListener {
     setBackground(Color.BLACK);
     setFocusable(true);
     setOpaque(true);
-    timer = new Timer(1000 / Config.FPS, this);
-    timer.start();
-    s.followRocket = true;          // default to rocket follow
+    loop = new SimLoop(s, this);
+    synchronized (s) {
+      s.followRocket = true;        // default to rocket follow
+      view = s.snapshot();
+    }
     snapCameraToRocket();
   }
 
-  @Override protected void paintComponent(Graphics g) {
-    super.paintComponent(g);
-    Render.drawAll((Graphics2D) g, this, s, null);
+  /**
+   * Start the simulation thread and, once the panel is showing, active rendering where the
+   * platform supports it (kept out of the constructor so offscreen users can skip both). Call on the EDT.
+   */
+  public void start(){
+    render = RenderLoop.start(this);
+    loop.start();
   }
 
-  @Override public void actionPerformed(ActionEvent e) {
-    long now = System.nanoTime();
-    double dtReal = (now - lastNs) / 1e9;
-    lastNs = now;
-    if (s.paused) { repaint(); return; }
-
-    // Advance on-rails bodies
-    s.advanceSimTime(dtReal);
-
-    // Inputs & rotation
-    if (s.upHeld)   s.throttle = Math.min(1.0, s.throttle + Config.THROTTLE_RATE * dtReal);
-    if (s.downHeld) s.throttle = Math.max(0.0, s.throttle - Config.THROTTLE_RATE * dtReal);
-    double turn = (s.leftHeld ? -1 : 0) + (s.rightHeld ? 1 : 0);
-    s.ang += Config.ANG_SPEED_RAD * turn * dtReal;
-
-    // Physics step
-    double dtSim = dtReal * s.timeScale;
-    double effThrottle = s.consumeFuel(dtSim); // consume fuel, get effective throttle
-    double nx = Math.sin(s.ang), ny = Math.cos(s.ang);
-    double ax = Config.MAX_THRUST_G * effThrottle * Config.G0 * nx;
-    double ay = Config.MAX_THRUST_G * effThrottle * Config.G0 * ny;
-
-    for (State.Body b : s.bodies) {
-      double dx = s.rx - b.cx, dy = s.ry - b.cy;
-      double r2 = dx*dx + dy*dy, r = Math.sqrt(r2);
-      if (r > 1) { double invR3 = 1.0 / (r2 * r); ax += -b.mu * dx * invR3; ay += -b.mu * dy * invR3; }
-    }
+  /** Called by SimLoop with a fresh snapshot when a frame is due. */
+  void publish(State snap){ view = snap; }
 
-    s.vx += ax * dtSim; s.vy += ay * dtSim;
-    s.rx += s.vx * dtSim; s.ry += s.vy * dtSim;
-
-    // Ground collision in ground frame
-    State.Body nb = s.nearestBody(s.rx, s.ry);
-    double dx = s.rx - nb.cx, dy = s.ry - nb.cy, rr = Math.hypot(dx, dy);
-    double surfR = Physics.surfaceRadiusAt(nb, s.rx, s.ry);
-    if (rr < surfR) {
-      double inv = 1.0 / Math.max(rr, 1e-6), nxn = dx * inv, nyn = dy * inv;
-      s.rx = nb.cx + nxn * surfR; s.ry = nb.cy + nyn * surfR;
-      double gvx = s.vx - nb.vcx, gvy = s.vy - nb.vcy;
-      double vn = gvx * nxn + gvy * nyn;
-      if (vn < 0) { gvx -= vn * nxn; gvy -= vn * nyn; }
-      double gt2 = gvx*gvx + gvy*gvy;
-      if (s.throttle < 0.02 && gt2 < 0.25) { gvx = 0; gvy = 0; } else { gvx *= 0.98; gvy *= 0.98; }
-      s.vx = nb.vcx + gvx; s.vy = nb.vcy + gvy;
-    }
+  /** Ask for the published snapshot to be drawn: the render thread picks it up by itself, the EDT needs a repaint. */
+  void requestFrame(){ if (render == null) repaint(); }
 
-    // Camera follow
-    if (s.followRocket) { camX = s.rx; camY = s.ry; }
-    else if (followBodyIdx >= 0 && followBodyIdx < s.bodies.size()) {
-      State.Body b = s.bodies.get(followBodyIdx);
-      camX = b.cx; camY = b.cy;
-    }
+  /** Interval at which frames are presented (the sim thread publishes snapshots at this rate). */
+  long frameNs(){ RenderLoop r = render; return (r != null) ? r.frameNs() : 1_000_000_000L / Config.FPS; }
+
+  /** Flight replay controls (see SimLoop); call while holding the lock on the State. */
+  public boolean toggleReplay(){ return loop.toggleReplay(); }
+  public void stopReplay(){ loop.stopReplay(); }
+  public void seekReplay(double dSec){ loop.seekReplay(dSec); }
 
-    repaint();
+  /** The snapshot currently being rendered; never mutated after publication. */
+  public State view(){ return view; }
+
+  @Override protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    if (render != null) return;     // the render thread owns the screen
+    State vs = view;
+    updateCamera(vs);
+    Render.drawAll((Graphics2D) g, this, vs, null);
+  }
+
+  /** Camera follow for the frame about to be drawn from vs; pins the camera the frame draws with. */
+  void updateCamera(State vs){
+    drawn = cam.updateAndGet(c -> {
+      if (vs.followRocket) return followRocket(c, vs);
+      if (c.follow >= 0 && c.follow < vs.bodies.size()) {
+        State.Body b = vs.bodies.get(c.follow);
+        return c.anchored(b.cx, b.cy, 0.0, 0.0);
+      }
+      return c;
+    });
   }
 
   // ---------- Transforms & camera ----------
-  public double w2sX(double wx){ return (wx - camX) * pxPerM + getWidth() / 2.0; }
-  public double w2sY(double wy){ return -(wy - camY) * pxPerM + getHeight() / 2.0; }
-  public double s2wX(double sx){ return (sx - getWidth() / 2.0) / pxPerM + camX; }
-  public double s2wY(double sy){ return -((sy - getHeight() / 2.0) / pxPerM) + camY; }
-  public double pxPerM(){ return pxPerM; }
-  public void setPxPerM(double v){
-    pxPerM = Math.max(Config.MIN_PX_PER_M, Math.min(Config.MAX_PX_PER_M, v));
+  // Transforms and accessors describe the camera of the frame on screen (the last updateCamera)
+  public double w2sX(double wx){ Cam c = drawn; return ((wx - c.ox) - c.dx) * c.ppm + getWidth() / 2.0; }
+  public double w2sY(double wy){ Cam c = drawn; return -((wy - c.oy) - c.dy) * c.ppm + getHeight() / 2.0; }
+  /** Screen position of a point given as a base (e.g. a body center) plus an offset from it. */
+  public double w2sX(double baseX, double offX){ Cam c = drawn; return ((baseX - c.ox) + (offX - c.dx)) * c.ppm + getWidth() / 2.0; }
+  public double w2sY(double baseY, double offY){ Cam c = drawn; return -((baseY - c.oy) + (offY - c.dy)) * c.ppm + getHeight() / 2.0; }
+  /** Screen position of the rocket, through its frame body when it has a current frame state. */
+  public double rocketSX(State vs){ return vs.frameCurrent() ? w2sX(vs.bodies.get(vs.frame).cx, vs.frx) : w2sX(vs.rx); }
+  public double rocketSY(State vs){ return vs.frameCurrent() ? w2sY(vs.bodies.get(vs.frame).cy, vs.fry) : w2sY(vs.ry); }
+  public double s2wX(double sx){ Cam c = drawn; return (sx - getWidth() / 2.0) / c.ppm + c.dx + c.ox; }
+  public double s2wY(double sy){ Cam c = drawn; return -((sy - getHeight() / 2.0) / c.ppm) + c.dy + c.oy; }
+  public double pxPerM(){ return drawn.ppm; }
+  public double camX(){ Cam c = drawn; return c.ox + c.dx; }
+  public double camY(){ Cam c = drawn; return c.oy + c.dy; }
+
+  // Edits apply to the camera and show from the next frame on
+  public void setPxPerM(double v){ cam.updateAndGet(c -> c.zoomed(v)); }
+  public void setCam(double x,double y){ cam.updateAndGet(c -> c.anchored(c.ox, c.oy, x - c.ox, y - c.oy)); }
+
+  /** Zoom by factor keeping the world point under screen point (sx, sy) in place. */
+  public void zoomAt(double sx, double sy, double factor){
+    final double hw = getWidth() / 2.0, hh = getHeight() / 2.0;
+    cam.updateAndGet(c -> {
+      Cam z = c.zoomed(c.ppm * factor);
+      double ex = (sx - hw) * (1.0 / c.ppm - 1.0 / z.ppm), ey = -(sy - hh) * (1.0 / c.ppm - 1.0 / z.ppm);
+      return z.anchored(z.ox, z.oy, z.dx + ex, z.dy + ey);
+    });
+  }
+
+  /** Move the camera so the scene follows a drag of (dxPx, dyPx) screen pixels. */
+  public void panBy(double dxPx, double dyPx){
+    cam.updateAndGet(c -> c.anchored(c.ox, c.oy, c.dx - dxPx / c.ppm, c.dy + dyPx / c.ppm));
   }
-  public double camX(){ return camX; }
-  public double camY(){ return camY; }
-  public void setCam(double x,double y){ camX=x; camY=y; }
-  public void snapCameraToRocket(){ camX = s.rx; camY = s.ry; }
+
+  public void snapCameraToRocket(){ State vs = view; cam.updateAndGet(c -> followRocket(c, vs)); }
   public void snapCameraToBody(int idx){
-    if (idx>=0 && idx<s.bodies.size()){ State.Body b = s.bodies.get(idx); camX = b.cx; camY = b.cy; }
+    State vs = view;
+    if (idx>=0 && idx<vs.bodies.size()){ State.Body b = vs.bodies.get(idx); cam.updateAndGet(c -> c.anchored(b.cx, b.cy, 0.0, 0.0)); }
   }
 
+  /** c centered on the rocket, anchored at its frame body when it has one. */
+  private static Cam followRocket(Cam c, State vs){
+    if (vs.frameCurrent()) { State.Body b = vs.bodies.get(vs.frame); return c.anchored(b.cx, b.cy, vs.frx, vs.fry); }
+    return c.anchored(vs.rx, vs.ry, 0.0, 0.0);
+  }
+
+  private static double clampZoom(double v){ return Math.max(Config.MIN_PX_PER_M, Math.min(Config.MAX_PX_PER_M, v)); }
+
   /** NEW: follow body and auto-zoom to fit the whole planet (so it can't vanish when zoomed in). */
   public void setFollowBody(int idx){
-    followBodyIdx = idx; s.followRocket = false;
-    zoomToFitBody(idx); // adjust zoom first
-    snapCameraToBody(idx);
+    synchronized (s) { s.followRocket = false; }
+    State vs = view;
+    if (idx < 0 || idx >= vs.bodies.size()) { cam.updateAndGet(c -> c.following(idx)); return; }
+    State.Body b = vs.bodies.get(idx);
+    final double fit = fitPxPerM(b);
+    // Zoom first (only ever out), then snap onto the body
+    cam.updateAndGet(c -> c.following(idx).zoomed(Math.min(c.ppm, fit)).anchored(b.cx, b.cy, 0.0, 0.0));
   }
 
-  public void clearFollowBody(){ followBodyIdx = -1; }
+  public void clearFollowBody(){ cam.updateAndGet(c -> c.following(-1)); }
+  public int followBodyIdx(){ return cam.get().follow; }
+
+  /** Camera part of a quick-save. */
+  public Snapshot.Camera camera(){ Cam c = cam.get(); return new Snapshot.Camera(c.ox + c.dx, c.oy + c.dy, c.ppm, c.follow); }
+
+  /** Put the camera back where a quick-save left it. */
+  public void restoreCamera(Snapshot.Camera c){
+    int follow = (c.followBody >= 0 && c.followBody < s.bodies.size()) ? c.followBody : -1;
+    cam.set(new Cam(c.x, c.y, 0.0, 0.0, clampZoom(c.pxPerM), follow));
+  }
 
-  /** Choose a px/m so that (radius + halo/padding) fits inside the shorter screen dimension. */
-  private void zoomToFitBody(int idx){
-    if (idx < 0 || idx >= s.bodies.size()) return;
-    State.Body b = s.bodies.get(idx);
-    double R = b.radius + Math.max(b.atmThick, b.terrainAmp);     // include halo/bumps
+  /** A px/m at which (radius + halo/padding) fits inside the shorter screen dimension. */
+  private double fitPxPerM(State.Body b){
+    double R = b.radius + Math.max(b.atmThick, b.terrain.maxElevation());     // include halo/bumps
     double pad = Math.max(0.08 * R, 2000.0);                      // extra safety pad
-    double wantPxPerM = (Math.min(getWidth(), getHeight()) * 0.9) / (2.0 * (R + pad));
-    // Only zoom OUT if currently too zoomed in
-    if (pxPerM > wantPxPerM) setPxPerM(wantPxPerM);
+    return (Math.min(getWidth(), getHeight()) * 0.9) / (2.0 * (R + pad));
   }
 }
@@ -0,0 +1,165 @@
+// File: src/rocket/Snapshot.java
+package rocket;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compact binary snapshots of a simulation: sim time, rocket, fuel, controls, time warp,
+ * prediction settings, maneuver nodes, the fleet and (optionally) the camera. Bodies are not
+ * stored; they are on rails and come back from the ephemeris at the restored time, so a snapshot
+ * without vessels or nodes is 180 bytes and encodes or decodes in well under a microsecond.
+ *
+ * Layout (little-endian): {magic, version, body count, vessel count}, the scalar fields in
+ * write() order, the camera, the fleet as whole columns (bulk-copied like Catalog's binary
+ * columns), then the nodes (version 2; version 1 snapshots restore with none). A snapshot only
+ * restores into a State built from a catalog with the same body count; vessel states, landed
+ * hosts and the followed body are checked against it before anything is replaced.
+ *
+ * Used for quick-save/quick-load in the game (F5/F9) and by Batch to fork scenarios from a
+ * saved state ({@code snapshot = file.rsnap}).
+ */
+public final class Snapshot {
+    private Snapshot(){}
+
+    private static final int MAGIC = 0x504E5352;   // "RSNP" little-endian
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16, FIXED_BYTES = 160, VESSEL_BYTES = 8 * 6 + 4 + 1, NODE_BYTES = 3 * 8;
+
+    /** Camera part of a snapshot (SimPanel owns the live values). */
+    public static final class Camera {
+        public final double x, y, pxPerM;
+        /** Followed body index, or -1 for none. */
+        public final int followBody;
+
+        public Camera(double x, double y, double pxPerM, int followBody){
+            this.x = x; this.y = y; this.pxPerM = pxPerM; this.followBody = followBody;
+        }
+    }
+
+    /** Bytes write() needs for this state. */
+    public static int size(State s){ return HEADER_BYTES + FIXED_BYTES + VESSEL_BYTES * s.fleet.n + 4 + NODE_BYTES * s.nodes.size(); }
+
+    /** Encode s (and cam, which may be null) into a new array. */
+    public static byte[] encode(State s, Camera cam){
+        ByteBuffer b = ByteBuffer.allocate(size(s)).order(ByteOrder.LITTLE_ENDIAN);
+        write(s, cam, b);
+        return b.array();
+    }
+
+    /** Encode s at out's position; out must be little-endian with size(s) bytes remaining. */
+    public static void write(State s, Camera cam, ByteBuffer out){
+        final Fleet f = s.fleet;
+        final int start = out.position();
+        out.putInt(MAGIC).putInt(VERSION).putInt(s.bodies.size()).putInt(f.n);
+        out.putDouble(s.simTimeSec)
+           .putDouble(s.rx).putDouble(s.ry).putDouble(s.vx).putDouble(s.vy).putDouble(s.ang)
+           .putDouble(s.throttle).putDouble(s.fuelSec).putDouble(s.timeScale);
+        out.putInt(s.predHorizonSec).putInt(s.integrator.ordinal()).putInt(s.predMode.ordinal())
+           .putInt((s.paused ? 1 : 0) | (s.followRocket ? 2 : 0) | (cam != null ? 4 : 0));
+        out.putDouble(cam != null ? cam.x : 0.0).putDouble(cam != null ? cam.y : 0.0)
+           .putDouble(cam != null ? cam.pxPerM : 0.0).putInt(cam != null ? cam.followBody : -1);
+        out.position(start + HEADER_BYTES + FIXED_BYTES);
+
+        final int n = f.n;
+        for (double[] a : new double[][]{ f.x, f.y, f.vx, f.vy, f.hostDx, f.hostDy }) {
+            out.asDoubleBuffer().put(a, 0, n); out.position(out.position() + 8 * n);
+        }
+        out.asIntBuffer().put(f.host, 0, n); out.position(out.position() + 4 * n);
+        out.put(f.status, 0, n);
+
+        out.putInt(s.nodes.size());
+        for (ManeuverNode m : s.nodes) out.putDouble(m.t).putDouble(m.prograde).putDouble(m.radial);
+    }
+
+    /**
+     * Decode a snapshot into s: rocket, controls and fleet are replaced, the bodies are moved to
+     * the restored time and the prediction is invalidated. Returns the saved camera, or null.
+     */
+    public static Camera read(ByteBuffer in, State s) throws IOException {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            final int start = in.position();
+            if (in.getInt() != MAGIC) throw new IOException("not a simulation snapshot");
+            int ver = in.getInt();
+            if (ver != 1 && ver != VERSION) throw new IOException("unsupported snapshot version " + ver);
+            int bodies = in.getInt(), n = in.getInt();
+            if (bodies != s.bodies.size()) throw new IOException("snapshot has " + bodies + " bodies, catalog has " + s.bodies.size());
+            if (n < 0) throw new IOException("bad vessel count " + n);
+            long nodesAt = start + HEADER_BYTES + FIXED_BYTES + (long) VESSEL_BYTES * n;
+            if (in.limit() < nodesAt + (ver >= 2 ? 4 : 0)) throw new IOException("truncated snapshot");
+            int nodeCount = (ver >= 2) ? in.getInt((int) nodesAt) : 0;
+            if (nodeCount < 0 || (ver >= 2 && in.limit() < nodesAt + 4 + (long) NODE_BYTES * nodeCount)) throw new IOException("truncated snapshot");
+
+            double t = in.getDouble();
+            double rx = in.getDouble(), ry = in.getDouble(), vx = in.getDouble(), vy = in.getDouble(), ang = in.getDouble();
+            double throttle = in.getDouble(), fuel = in.getDouble(), warp = in.getDouble();
+            int horizon = in.getInt(), integ = in.getInt(), mode = in.getInt(), flags = in.getInt();
+            if (integ < 0 || integ >= Integrator.values().length || mode < 0 || mode >= PredictionMode.values().length)
+                throw new IOException("bad integrator/prediction mode in snapshot");
+            Camera cam = ((flags & 4) != 0) ? new Camera(in.getDouble(), in.getDouble(), in.getDouble(), in.getInt()) : null;
+            if (cam != null && (cam.followBody < -1 || cam.followBody >= bodies)) throw new IOException("bad followed body " + cam.followBody);
+            in.position(start + HEADER_BYTES + FIXED_BYTES);
+
+            // Check the status and host columns in place, so a bad file leaves the live fleet alone
+            final int hostAt = in.position() + 6 * 8 * n, statusAt = hostAt + 4 * n;
+            for (int i = 0; i < n; i++) {
+                byte st = in.get(statusAt + i);
+                if (st != Fleet.FLYING && st != Fleet.LANDED) throw new IOException("vessel " + i + " has bad status " + st);
+                int h = in.getInt(hostAt + 4 * i);
+                if (st == Fleet.LANDED && (h < 0 || h >= bodies)) throw new IOException("landed vessel " + i + " has host " + h);
+            }
+
+            final Fleet f = s.fleet;
+            f.resize(n);
+            for (double[] a : new double[][]{ f.x, f.y, f.vx, f.vy, f.hostDx, f.hostDy }) {
+                in.asDoubleBuffer().get(a, 0, n); in.position(in.position() + 8 * n);
+            }
+            in.asIntBuffer().get(f.host, 0, n); in.position(in.position() + 4 * n);
+            in.get(f.status, 0, n);
+
+            List<ManeuverNode> nodes = new ArrayList<>();
+            if (ver >= 2) in.getInt();
+            for (int k = 0; k < nodeCount; k++) nodes.add(new ManeuverNode(in.getDouble(), in.getDouble(), in.getDouble()));
+            nodes.sort(Comparator.comparingDouble(m -> m.t));
+
+            s.simTimeSec = t;
+            s.rx = rx; s.ry = ry; s.vx = vx; s.vy = vy; s.ang = ang;
+            s.throttle = throttle; s.fuelSec = fuel; s.timeScale = warp;
+            s.predHorizonSec = horizon; s.integrator = Integrator.values()[integ]; s.predMode = PredictionMode.values()[mode];
+            s.paused = (flags & 1) != 0; s.followRocket = (flags & 2) != 0;
+            s.nodes = Collections.unmodifiableList(nodes); s.selectedNode = nodes.isEmpty() ? -1 : 0;
+            s.onRails = false;
+            s.updateOrbits();
+            s.predEpoch++;
+            return cam;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("truncated snapshot", e);
+        }
+    }
+
+    public static Camera decode(byte[] data, State s) throws IOException { return read(ByteBuffer.wrap(data), s); }
+
+    public static void save(Path p, State s, Camera cam) throws IOException {
+        Path dir = p.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Files.write(p, encode(s, cam));
+    }
+
+    public static Camera load(Path p, State s) throws IOException {
+        byte[] data = Files.readAllBytes(p);
+        try {
+            return decode(data, s);
+        } catch (IOException e) {
+            throw new IOException(p + ": " + e.getMessage(), e);
+        }
+    }
+}
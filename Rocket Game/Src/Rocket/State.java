@@ -6,17 +6,50 @@ public class State {
   public static final class Body {
     public String name; public double cx,cy,radius,mu,terrainAmp,terrainL,atmThick; public Color atmInner,atmOuter;
     public double vcx=0,vcy=0; // center velocity (m/s) for ground-frame collisions
-    public Body(String n,double x,double y,double R,double M,double ta,double tl,double at,Color ai,Color ao){
-      name=n; cx=x; cy=y; radius=R; mu=M; terrainAmp=ta; terrainL=Math.max(1.0,tl); atmThick=Math.max(0.0,at); atmInner=ai; atmOuter=ao;}
+    /** Height profile (shared with the catalog; FLAT for smooth bodies). */
+    public Terrain terrain;
+    public Body(String n,double x,double y,double R,double M,double ta,double tl,double at,Color ai,Color ao,Terrain tr){
+      name=n; cx=x; cy=y; radius=R; mu=M; terrainAmp=ta; terrainL=Math.max(1.0,tl); atmThick=Math.max(0.0,at); atmInner=ai; atmOuter=ao;
+      terrain=tr;}
+    /** Body i of catalog c at its catalog position, with the catalog's terrain (honours FLAG_SMOOTH). */
+    Body(Catalog c,int i){
+      this(c.name[i], c.cx[i], c.cy[i], c.radius[i], c.mu[i], c.terrainAmp[i], c.terrainL[i],
+           c.atmThick[i], new Color(c.atmInnerArgb[i],true), new Color(c.atmOuterArgb[i],true), c.terrain(i)); }
+    Body(Body o){ this(o.name,o.cx,o.cy,o.radius,o.mu,o.terrainAmp,o.terrainL,o.atmThick,o.atmInner,o.atmOuter,o.terrain); vcx=o.vcx; vcy=o.vcy; }
     public double k1(){ return (2*PI)/terrainL; }
   }
 
   public final List<Body> bodies=new ArrayList<>();
+  /** Other vessels (satellites, stages, debris), stepped by the sim thread alongside the rocket. */
+  public final Fleet fleet;
+  private final Ephemeris eph=new Ephemeris();
 
   // Rocket state
   public double rx=0,ry=0,vx=0,vy=0,ang=0;
+  /**
+   * The same state relative to body {@link #frame} (its dominant body), which is what the live
+   * step integrates (see Physics.stepRocket); rx..vy are derived from it. Setting rx..vy directly
+   * still works: the next step sees they changed and re-derives the relative state from them.
+   */
+  public int frame=-1; public double frx=0,fry=0,fvx=0,fvy=0;
+  private double syncRx,syncRy,syncVx,syncVy;   // rx..vy as last derived from the frame state
   public boolean leftHeld=false,rightHeld=false,upHeld=false,downHeld=false,paused=false,followRocket=false;
   public double throttle=0.0,timeScale=1.0; public int predHorizonSec=18000;
+  public Integrator integrator=Integrator.VERLET;
+  public PredictionMode predMode=PredictionMode.NUMERIC;
+  /** True while the sim thread is propagating the rocket analytically (see Physics.coastOnRails). */
+  public boolean onRails=false;
+  /** True while the sim thread plays back a flight log instead of stepping (see FlightReplay). */
+  public boolean replay=false;
+  /** Bumped whenever the ballistic future changes discontinuously (thrust, collision, reset...); see PredictionCache. */
+  public long predEpoch=0;
+  /** True while the rocket rests on (or slides along) a surface; predEpoch is bumped when it changes. */
+  public boolean grounded=false;
+
+  /** Planned burns, sorted by time. Replaced (never mutated) on every edit, so snapshots share it and a changed reference means changed nodes. */
+  public List<ManeuverNode> nodes=List.of();
+  /** Node the editing keys act on, or -1. */
+  public int selectedNode=-1;
 
   // Fuel (seconds of full-throttle burn remaining)
   public double fuelSec = Config.FUEL_FULL_BURN_SEC;
@@ -24,17 +57,28 @@ public class State {
   // Orbits
   public double simTimeSec=0.0;
 
-  public State(){ seedFromConfig(); reset(); }
+  public State(){ fleet=new Fleet(); seedFromCatalog(); reset(); }
+
+  /** Copy constructor used by {@link #snapshot()}; bodies are deep-copied, everything else is primitive. */
+  private State(State o){
+    for(Body b:o.bodies) bodies.add(new Body(b));
+    fleet=o.fleet.copy();
+    rx=o.rx; ry=o.ry; vx=o.vx; vy=o.vy; ang=o.ang;
+    frame=o.frame; frx=o.frx; fry=o.fry; fvx=o.fvx; fvy=o.fvy; syncRx=o.syncRx; syncRy=o.syncRy; syncVx=o.syncVx; syncVy=o.syncVy;
+    leftHeld=o.leftHeld; rightHeld=o.rightHeld; upHeld=o.upHeld; downHeld=o.downHeld; paused=o.paused; followRocket=o.followRocket;
+    throttle=o.throttle; timeScale=o.timeScale; predHorizonSec=o.predHorizonSec; integrator=o.integrator; predMode=o.predMode; predEpoch=o.predEpoch; grounded=o.grounded; onRails=o.onRails; replay=o.replay;
+    nodes=o.nodes; selectedNode=o.selectedNode;
+    fuelSec=o.fuelSec; simTimeSec=o.simTimeSec;
+    eph.evaluate(simTimeSec);
+  }
+
+  /** Immutable-by-convention copy handed from the simulation thread to the renderer. Call while holding the lock on this. */
+  public State snapshot(){ return new State(this); }
 
-  private void seedFromConfig(){
+  private void seedFromCatalog(){
+    Catalog c=eph.catalog;
     bodies.clear();
-    for(int i=0;i<Config.BODY_COUNT;i++){
-      bodies.add(new Body(
-        Config.BODY_NAME[i], Config.BODY_CX[i], Config.BODY_CY[i], Config.BODY_RADIUS[i], Config.BODY_MU[i],
-        Config.BODY_TERRAIN_AMP[i], Config.BODY_TERRAIN_L[i],
-        Config.BODY_ATM_THICK[i], new Color(Config.BODY_ATM_INNER_ARGB[i],true), new Color(Config.BODY_ATM_OUTER_ARGB[i],true)
-      ));
-    }
+    for(int i=0;i<c.n;i++) bodies.add(new Body(c,i));
     updateOrbits();
   }
 
@@ -42,6 +86,7 @@ public class State {
     simTimeSec=0.0;
     updateOrbits(); // ensures vcx/vcy are set for all bodies at t=0
     int earthIdx=indexOf("Earth");
+    if(earthIdx<0) earthIdx=0; // catalogs without an Earth start on the first body
     Body e=bodies.get(earthIdx);
 
     // Place rocket on Earth's surface directly "above" the center at t=0
@@ -55,29 +100,74 @@ public class State {
 
     // Refuel to full
     fuelSec = Config.FUEL_FULL_BURN_SEC;
+    fleet.clear();
+    nodes=List.of(); selectedNode=-1;
+    grounded=false;
+    predEpoch++;
+  }
+
+  // ---------- Maneuver nodes (selection follows the edited node through re-sorting) ----------
+  public void addNode(ManeuverNode n){ setNodes(with(n, -1), n); }
+  public void replaceSelectedNode(ManeuverNode n){ if(hasSelectedNode()) setNodes(with(n, selectedNode), n); }
+  public void removeSelectedNode(){
+    if(!hasSelectedNode()) return;
+    List<ManeuverNode> l=new ArrayList<>(nodes); l.remove(selectedNode);
+    nodes=Collections.unmodifiableList(l);
+    selectedNode=Math.min(selectedNode, nodes.size()-1);
+  }
+  public void selectNextNode(){ selectedNode = nodes.isEmpty()? -1 : (selectedNode+1)%nodes.size(); }
+  public boolean hasSelectedNode(){ return selectedNode>=0 && selectedNode<nodes.size(); }
+  public ManeuverNode selectedNode(){ return hasSelectedNode()? nodes.get(selectedNode) : null; }
+
+  private List<ManeuverNode> with(ManeuverNode n, int replace){
+    List<ManeuverNode> l=new ArrayList<>(nodes);
+    if(replace>=0) l.set(replace,n); else l.add(n);
+    l.sort(Comparator.comparingDouble(m -> m.t));
+    return l;
+  }
+  private void setNodes(List<ManeuverNode> l, ManeuverNode sel){
+    nodes=Collections.unmodifiableList(l);
+    selectedNode=l.indexOf(sel);
+  }
+
+  /**
+   * Release vessels at the rocket's position: one with the rocket's velocity, or (count > 1)
+   * a debris cloud with velocities scattered by up to spreadMps.
+   */
+  public void spawnVessels(int count, double spreadMps, Random rnd){
+    for(int i=0;i<count;i++){
+      double dvx=0, dvy=0;
+      if(count>1){ double a=rnd.nextDouble()*2*PI, m=spreadMps*Math.sqrt(rnd.nextDouble()); dvx=m*cos(a); dvy=m*sin(a); }
+      fleet.add(rx, ry, vx+dvx, vy+dvy);
+    }
   }
 
+  // ---------- Body-relative rocket state ----------
+  /** True if rx..vy are still what the frame state last derived (not set directly since). */
+  public boolean frameCurrent(){ return frame>=0 && rx==syncRx && ry==syncRy && vx==syncVx && vy==syncVy; }
+  /** Set the rocket's state relative to body f and derive rx..vy from it (bodies must be at the state's time). */
+  public void setFrameState(int f,double x,double y,double fvx_,double fvy_){
+    frame=f; frx=x; fry=y; fvx=fvx_; fvy=fvy_;
+    Body b=bodies.get(f);
+    syncRx=rx=b.cx+x; syncRy=ry=b.cy+y; syncVx=vx=b.vcx+fvx_; syncVy=vy=b.vcy+fvy_;
+  }
+  /** The frame body, or the body nearest the rocket if there is no current frame state. */
+  public Body frameBody(){ return frameCurrent()? bodies.get(frame) : nearestBody(rx,ry); }
+
   public void advanceSimTime(double dtReal){ simTimeSec+=dtReal*timeScale; updateOrbits(); }
+  /** Advance by a fixed simulated step (seconds of sim time, already scaled). */
+  public void advanceSimTimeBy(double dtSim){ simTimeSec+=dtSim; updateOrbits(); }
+
+  /** Primitive per-body arrays (positions at simTimeSec, mu, radius) for hot loops. */
+  public BodyStore store(){ return eph.store; }
+  /** Static data (colors, parents, orbits) of the bodies, indexed like {@link #bodies}. */
+  public Catalog catalog(){ return eph.catalog; }
 
   public void updateOrbits(){
-    // Two-pass feel: child velocities include parent velocities
-    for(int i=0;i<Config.BODY_COUNT;i++){
-      int mode=Config.ORBIT_MODE[i], c=Config.ORBIT_CENTER_IDX[i];
+    eph.evaluate(simTimeSec);
+    for(int i=0;i<eph.n;i++){
       Body b=bodies.get(i);
-      if(mode==0 || c<0){
-        b.cx=Config.BODY_CX[i]; b.cy=Config.BODY_CY[i]; b.vcx=0; b.vcy=0;
-      }else{
-        Body p=bodies.get(c);
-        double A=Config.ORBIT_A_M[i], B=Config.ORBIT_B_M[i];
-        double w=Config.ORBIT_OMEGA_RAD_PER_S[i];
-        double th=Config.ORBIT_PHASE_RAD[i] + w*simTimeSec;
-        b.cx = p.cx + A*cos(th);
-        b.cy = p.cy + B*sin(th);
-        double vx_rel = -A*w*sin(th);
-        double vy_rel =  B*w*cos(th);
-        b.vcx = p.vcx + vx_rel;
-        b.vcy = p.vcy + vy_rel;
-      }
+      b.cx=eph.x[i]; b.cy=eph.y[i]; b.vcx=eph.vx[i]; b.vcy=eph.vy[i];
     }
   }
 
@@ -86,7 +176,17 @@ public class State {
     timeScale = clamp(timeScale*mult, Config.TIME_SCALE_MIN, Config.TIME_SCALE_MAX);
   }
   public void setThrottle(double t){ throttle=clamp(t,0.0,1.0); }
-  public void nudgePredHorizon(int s){ predHorizonSec=(int)clamp(predHorizonSec+s,10.0,(double)Config.PRED_HORIZON_MAX); }
+  public void nudgePredHorizon(int s){ setPredHorizon(predHorizonSec+(double)s); }
+  /** Multiplicative horizon change, used in conic mode where horizons span seconds to years. */
+  public void scalePredHorizon(double f){ setPredHorizon(predHorizonSec*f); }
+  private void setPredHorizon(double sec){
+    int h=(int)clamp(sec,10.0,(double)predMode.horizonMax());
+    if(h!=predHorizonSec){ predHorizonSec=h; predEpoch++; }
+  }
+  public void cyclePredMode(){ predMode=predMode.next(); setPredHorizon(predHorizonSec); predEpoch++; }
+
+  /** Whether the engine is producing thrust: throttle open and fuel left (what consumeFuel will burn). */
+  public boolean thrusting(){ return throttle > 1e-9 && fuelSec > 1e-9; }
 
   /**
    * Consume fuel based on current throttle over a simulation step of dtSim seconds.
@@ -112,6 +212,12 @@ public class State {
 
   public double fuelFrac(){ return clamp(fuelSec / Math.max(1e-9, Config.FUEL_FULL_BURN_SEC), 0.0, 1.0); }
 
+  public int nearestBodyIdx(double x,double y){
+    int best=0; double bestD2=Double.POSITIVE_INFINITY;
+    for(int i=0;i<bodies.size();i++){ Body b=bodies.get(i); double dx=x-b.cx,dy=y-b.cy,d2=dx*dx+dy*dy; if(d2<bestD2){bestD2=d2; best=i;} }
+    return best;
+  }
+
   public Body nearestBody(double x,double y){
     Body best=null; double bestD2=Double.POSITIVE_INFINITY;
     for(Body b:bodies){ double dx=x-b.cx,dy=y-b.cy,d2=dx*dx+dy*dy; if(d2<bestD2){bestD2=d2; best=b;} }
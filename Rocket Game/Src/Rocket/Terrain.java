@@ -0,0 +1,212 @@
+// File: src/rocket/Terrain.java
+package rocket;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.lang.Math.*;
+
+/**
+ * Terrain height of one body as a function of polar angle: Config.TERRAIN_OCTAVES octaves of
+ * 1-D gradient noise along the surface, the first with wavelength BODY_TERRAIN_L ×
+ * Config.TERRAIN_BASE_MULT and each next one half as long and TERRAIN_GAIN as high. Every
+ * octave has a whole number of lattice cells around the body, so the profile has no seam, and
+ * the total never exceeds BODY_TERRAIN_AMP.
+ *
+ * Evaluating all octaves per query is too slow, so heights come from a two-level angular cache
+ * (Catmull-Rom between samples, at least Config.TERRAIN_SAMPLES_PER_WAVE per wavelength):
+ *  - coarse: the first TERRAIN_COARSE_OCTAVES octaves around the whole body, for orbit views;
+ *  - fine: every octave, in tiles of TERRAIN_TILE_SAMPLES samples generated on first use (near
+ *    the rocket for collision, near the camera for the horizon), at most TERRAIN_TILE_CACHE
+ *    per body with the least recently used evicted.
+ *
+ * One instance per catalog body (Catalog.terrain), shared by every State copy, collision,
+ * prediction and rendering. Bodies flagged Catalog.FLAG_SMOOTH or without amplitude share FLAT.
+ * Thread-safe: readers take no locks; building a tile does.
+ */
+public final class Terrain {
+    /** A perfect sphere. */
+    public static final Terrain FLAT = new Terrain(0.0, 0.0, 1.0, 0);
+
+    public final double radius, amp, wavelength;
+    private final int seed;
+
+    // Per octave: lattice cells around the body and amplitude (normalised so they sum to amp)
+    private final int[] cells;
+    private final double[] octAmp;
+
+    // Coarse table: sample k at k + 1, padded with one sample before and two after (wrapped)
+    private volatile float[] coarse;
+
+    // Fine tiles: tile k covers samples [k * TILE, (k + 1) * TILE) of fineN around the body
+    private final int fineN, tileCount;
+    private final AtomicReferenceArray<Tile> tiles;
+    private int liveTiles = 0;             // guarded by this
+    private long clock = 0;                // recency stamps; racy on purpose (approximate LRU)
+
+    private static final class Tile {
+        final float[] h;                   // padded like coarse
+        long used;
+        Tile(float[] h){ this.h = h; }
+    }
+
+    Terrain(double radius, double amp, double wavelength, int seed){
+        this.radius = radius; this.amp = amp; this.wavelength = max(1.0, wavelength); this.seed = seed;
+        final int oct = Config.TERRAIN_OCTAVES;
+        cells = new int[oct]; octAmp = new double[oct];
+        double sum = 0.0, a = 1.0;
+        for (int o = 0; o < oct; o++) {
+            double lambda = this.wavelength * Config.TERRAIN_BASE_MULT / (1 << o);
+            cells[o] = (int) max(1L, min(1L << 30, round(2 * PI * radius / lambda)));
+            octAmp[o] = a; sum += a; a *= Config.TERRAIN_GAIN;
+        }
+        for (int o = 0; o < oct; o++) octAmp[o] *= amp / sum;
+
+        if (amp > 0.0) {
+            int tile = Config.TERRAIN_TILE_SAMPLES;
+            long want = (long) cells[oct - 1] * Config.TERRAIN_SAMPLES_PER_WAVE;
+            tileCount = (int) max(1L, min(Integer.MAX_VALUE / tile, (want + tile - 1) / tile));
+            fineN = tileCount * tile;
+            tiles = new AtomicReferenceArray<>(tileCount);
+        } else {
+            tileCount = 0; fineN = 0; tiles = null;
+        }
+    }
+
+    /** Terrain for catalog body i (FLAT for smooth bodies). */
+    static Terrain of(Catalog c, int i){
+        if ((c.flags[i] & Catalog.FLAG_SMOOTH) != 0 || !(c.terrainAmp[i] > 0.0)) return FLAT;
+        return new Terrain(c.radius[i], c.terrainAmp[i], c.terrainL[i], c.name[i].hashCode());
+    }
+
+    public boolean flat(){ return amp <= 0.0; }
+
+    /** Largest possible height above the mean radius (m). */
+    public double maxElevation(){ return amp; }
+
+    /** Sample spacing (m along the surface) of the fine level; finer detail does not exist. */
+    public double fineSpacing(){ return (fineN > 0) ? 2 * PI * radius / fineN : Double.POSITIVE_INFINITY; }
+
+    /** Full-detail elevation (m) above the mean radius at polar angle theta (any value; wraps). */
+    public double elevation(double theta){
+        if (amp <= 0.0) return 0.0;
+        double u = theta * (fineN / (2 * PI));
+        if (u < 0.0 || u >= fineN) u -= fineN * floor(u / fineN);   // callers normally pass [0, 2 pi)
+        int k = min((int) u, fineN - 1);
+        final int tile = Config.TERRAIN_TILE_SAMPLES;
+        Tile t = tile(k / tile);
+        int i = k - (k / tile) * tile;
+        return catmullRom(t.h, i, u - k);
+    }
+
+    /**
+     * Elevation for drawing with samples spacingM metres apart along the surface: only the
+     * octaves with a wavelength of at least 2 spacingM, since shorter ones would just alias.
+     * Full detail (fine tiles) when every octave qualifies, the coarse table when exactly its
+     * octaves do, and the qualifying octaves summed directly otherwise.
+     */
+    public double elevation(double theta, double spacingM){
+        if (amp <= 0.0) return 0.0;
+        final int k = octavesFor(spacingM);
+        if (k >= cells.length) return elevation(theta);
+        if (k != Config.TERRAIN_COARSE_OCTAVES) return noise(theta, k);
+        final float[] t = coarse();
+        final int n = t.length - 3;
+        double u = theta * (n / (2 * PI));
+        if (u < 0.0 || u >= n) u -= n * floor(u / n);
+        int i = min((int) u, n - 1);
+        return catmullRom(t, i, u - i);
+    }
+
+    /** Octaves (from the first) whose wavelength is at least twice spacingM. */
+    private int octavesFor(double spacingM){
+        int k = 0;
+        while (k < cells.length && 2 * PI * radius / cells[k] >= 2.0 * spacingM) k++;
+        return k;
+    }
+
+    /** The noise itself, all octaves (what the tiles sample). */
+    public double exact(double theta){ return noise(theta, Config.TERRAIN_OCTAVES); }
+
+    /** Fine tiles currently held (for diagnostics). */
+    public synchronized int cachedTiles(){ return liveTiles; }
+
+    private double noise(double theta, int octaves){
+        if (amp <= 0.0) return 0.0;
+        double turn = theta / (2 * PI), h = 0.0;
+        turn -= floor(turn);
+        for (int o = 0; o < octaves; o++) {
+            int m = cells[o];
+            double u = turn * m;
+            int c = (int) u;
+            double f = u - c;
+            double g0 = grad(seed, o, c % m), g1 = grad(seed, o, (c + 1) % m);
+            double s = f * f * f * (f * (f * 6.0 - 15.0) + 10.0);     // quintic fade
+            h += octAmp[o] * 2.0 * (g0 * f + s * (g1 * (f - 1.0) - g0 * f));
+        }
+        return h;
+    }
+
+    /** Gradient in [-1, 1) for lattice point c of octave o. */
+    private static double grad(int seed, int o, int c){
+        int x = c * 0x9E3779B1 ^ o * 0x85EBCA77 ^ seed;
+        x ^= x >>> 16; x *= 0x7FEB352D; x ^= x >>> 15; x *= 0x846CA68B; x ^= x >>> 16;
+        return (x >> 8) * (1.0 / (1 << 23));
+    }
+
+    private static double catmullRom(float[] t, int i, double f){
+        double p0 = t[i], p1 = t[i + 1], p2 = t[i + 2], p3 = t[i + 3];
+        return p1 + 0.5 * f * (p2 - p0 + f * (2.0*p0 - 5.0*p1 + 4.0*p2 - p3 + f * (3.0*(p1 - p2) + p3 - p0)));
+    }
+
+    private Tile tile(int k){
+        Tile t = tiles.get(k);
+        if (t == null) t = buildTile(k);
+        t.used = ++clock;
+        return t;
+    }
+
+    private synchronized Tile buildTile(int k){
+        Tile t = tiles.get(k);
+        if (t != null) return t;
+        if (liveTiles >= Config.TERRAIN_TILE_CACHE) evictOldest();
+        final int tile = Config.TERRAIN_TILE_SAMPLES;
+        float[] h = new float[tile + 3];
+        double step = 2 * PI / fineN;
+        long first = (long) k * tile - 1;
+        for (int i = 0; i < tile + 3; i++) h[i] = (float) exact((first + i) * step);
+        t = new Tile(h);
+        tiles.set(k, t);
+        liveTiles++;
+        return t;
+    }
+
+    private void evictOldest(){
+        int oldest = -1; long best = Long.MAX_VALUE;
+        for (int k = 0; k < tileCount; k++) {
+            Tile t = tiles.get(k);
+            if (t != null && t.used < best) { best = t.used; oldest = k; }
+        }
+        if (oldest >= 0) { tiles.set(oldest, null); liveTiles--; }
+    }
+
+    private float[] coarse(){
+        float[] t = coarse;
+        if (t == null) {
+            synchronized (this) {
+                if ((t = coarse) == null) coarse = t = buildCoarse();
+            }
+        }
+        return t;
+    }
+
+    private float[] buildCoarse(){
+        final int oct = Config.TERRAIN_COARSE_OCTAVES;
+        long n = (long) cells[oct - 1] * Config.TERRAIN_SAMPLES_PER_WAVE;
+        int size = (int) min(max(n, 64L), Config.TERRAIN_TABLE_MAX);
+        float[] t = new float[size + 3];
+        double step = 2 * PI / size;
+        for (int k = 0; k < size; k++) t[k + 1] = (float) noise(k * step, oct);
+        t[0] = t[size]; t[size + 1] = t[1]; t[size + 2] = t[2];
+        return t;
+    }
+}
@@ -0,0 +1,41 @@
+// File: bench/src/main/java/rocket/bench/DispersionBench.java
+package rocket.bench;
+
+import org.openjdk.jmh.annotations.*;
+import rocket.Dispersion;
+import rocket.PredictionMode;
+
+import java.util.concurrent.TimeUnit;
+
+/** Monte Carlo dispersion throughput, reported in trajectories per second across all cores. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispersionBench {
+    private static final int RUNS = 256;
+
+    @Param({"leo", "lunar"})
+    public String fixture;
+
+    @Param({"NUMERIC", "CONIC"})
+    public String mode;
+
+    private rocket.State s;
+    private final Dispersion.Params params = new Dispersion.Params();
+
+    @Setup(Level.Trial)
+    public void setup(){
+        s = Fixtures.state(fixture);
+        s.predMode = PredictionMode.valueOf(mode);
+        params.count = RUNS;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public Dispersion.Result trajectories(){
+        return Dispersion.run(s, params);
+    }
+}
@@ -0,0 +1,85 @@
+// File: bench/src/main/java/rocket/bench/Fixtures.java
+package rocket.bench;
+
+import rocket.Config;
+import rocket.SimPanel;
+import rocket.State;
+
+import java.util.Random;
+
+/**
+ * Reproducible scenes for the benchmarks. Every fixture is built from the built-in catalog at a
+ * fixed sim time with fixed seeds, so two runs (or two commits) measure the same work.
+ *
+ *  - pad:   on the launch pad at t = 0 (the State constructor's own reset)
+ *  - leo:   400 km circular Earth orbit, t = 0
+ *  - lunar: translunar coast, one day after a prograde burn, t = 86400 s
+ *  - helio: heliocentric cruise halfway to Mars, t = 1.2e7 s
+ *  - fleet: leo plus a 1000-vessel debris cloud (seed 42)
+ */
+public final class Fixtures {
+    private Fixtures(){}
+
+    public static final String NAMES = "pad,leo,lunar,helio,fleet";
+
+    public static State state(String name){
+        State s = new State();
+        State.Body earth = body(s, "Earth");
+        switch (name) {
+            case "pad":
+                break;
+            case "leo":
+                circular(s, earth, earth.radius + 400e3);
+                break;
+            case "lunar": {
+                circular(s, earth, earth.radius + 400e3);
+                double r = Math.hypot(s.rx - earth.cx, s.ry - earth.cy);
+                double vEsc = Math.sqrt(2.0 * earth.mu / r), k = 0.995 * vEsc / Math.hypot(s.vx - earth.vcx, s.vy - earth.vcy);
+                s.vx = earth.vcx + (s.vx - earth.vcx) * k; s.vy = earth.vcy + (s.vy - earth.vcy) * k;
+                coastTo(s, 86400.0);
+                break;
+            }
+            case "helio": {
+                s.simTimeSec = 1.2e7; s.updateOrbits();
+                State.Body sun = body(s, "Sun");
+                double r = 1.9e11, v = Math.sqrt(sun.mu / r);
+                s.rx = sun.cx + r; s.ry = sun.cy; s.vx = sun.vcx; s.vy = sun.vcy + v;
+                break;
+            }
+            case "fleet":
+                circular(s, earth, earth.radius + 400e3);
+                s.spawnVessels(1000, Config.FLEET_DEBRIS_SPREAD_MPS, new Random(42));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown fixture '" + name + "' (" + NAMES + ")");
+        }
+        s.throttle = 0.0; s.paused = false; s.followRocket = true;
+        s.predEpoch++;
+        return s;
+    }
+
+    /** Offscreen panel for the renderers: sized, camera on the rocket, no sim thread. */
+    public static SimPanel panel(State s, int w, int h, double pxPerM){
+        SimPanel p = new SimPanel(s);
+        p.setSize(w, h);
+        p.setPxPerM(pxPerM);
+        p.setCam(s.rx, s.ry);
+        return p;
+    }
+
+    static State.Body body(State s, String name){
+        for (State.Body b : s.bodies) if (b.name.equalsIgnoreCase(name)) return b;
+        throw new IllegalArgumentException("no body " + name);
+    }
+
+    private static void circular(State s, State.Body b, double r){
+        double v = Math.sqrt(b.mu / r);
+        s.rx = b.cx; s.ry = b.cy + r;
+        s.vx = b.vcx + v; s.vy = b.vcy;
+    }
+
+    private static void coastTo(State s, double t){
+        rocket.Engine e = new rocket.Engine(s);
+        e.runFor(t - s.simTimeSec);
+    }
+}
@@ -0,0 +1,77 @@
+// File: bench/src/main/java/rocket/bench/PhysicsBench.java
+package rocket.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import rocket.Gravity;
+import rocket.Integrator;
+import rocket.Physics;
+
+import java.util.concurrent.TimeUnit;
+
+/** Physics entry points on the fixture states: prediction, terrain, ephemeris, gravity, one live step. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBench {
+    @Param({"leo", "lunar", "helio"})
+    public String fixture;
+
+    @Param({"VERLET", "RK4"})
+    public String integrator;
+
+    private rocket.State s;
+    private Physics.GravityField field;
+    private double[] y0 = new double[4];
+    private final double[] g = new double[2];
+    private rocket.State.Body moon;
+    private double theta = 0.0;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        s = Fixtures.state(fixture);
+        s.integrator = Integrator.valueOf(integrator);
+        field = new Physics.GravityField();
+        y0 = new double[]{s.rx, s.ry, s.vx, s.vy};
+        moon = Fixtures.body(s, "Moon");
+    }
+
+    /** Full numeric prediction over the default horizon (what a rebuild costs). */
+    @Benchmark
+    public Object predictBallistic(){
+        return Physics.predictBallistic(s, s.predHorizonSec, rocket.Config.BASE_PRED_DT);
+    }
+
+    /** Terrain height at a sweeping angle (collision and horizon arcs call this per sample). */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double elevationAtAngle(){
+        theta += 0.001; if (theta > 2 * Math.PI) theta -= 2 * Math.PI;
+        return Physics.elevationAtAngle(moon, theta);
+    }
+
+    /** Ephemeris evaluation plus the copy into State.bodies. */
+    @Benchmark
+    public void updateOrbits(){
+        s.simTimeSec += 0.05;
+        s.updateOrbits();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void gravity(Blackhole bh){
+        Gravity.accel(s.store(), s.rx, s.ry, g);
+        bh.consume(g);
+    }
+
+    /** One live sub-step of the rocket (state restored each call so the fixture does not drift). */
+    @Benchmark
+    public void stepRocket(){
+        s.rx = y0[0]; s.ry = y0[1]; s.vx = y0[2]; s.vy = y0[3];
+        double dt = s.integrator.liveDt(), t0 = s.simTimeSec;
+        Physics.stepRocket(s, field, t0, dt);
+    }
+}
@@ -0,0 +1,39 @@
+// File: bench/src/main/java/rocket/bench/PorkchopBench.java
+package rocket.bench;
+
+import org.openjdk.jmh.annotations.*;
+import rocket.Catalog;
+import rocket.Config;
+import rocket.Porkchop;
+
+import java.util.concurrent.TimeUnit;
+
+/** Porkchop grid solve rate, reported in Lambert solutions per second across all cores. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PorkchopBench {
+    private static final int CELLS = Config.PORK_DEP_STEPS * Config.PORK_ARR_STEPS;
+
+    @Param({"Earth:Mars", "Earth:Venus", "Earth:Jupiter"})
+    public String pair;
+
+    private Catalog cat;
+    private int from, to;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        cat = Catalog.current();
+        String[] p = pair.split(":");
+        from = cat.indexOf(p[0]); to = cat.indexOf(p[1]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public Porkchop.Grid grid(){
+        return Porkchop.compute(cat, from, to, 0.0, Config.PORK_DEP_STEPS, Config.PORK_ARR_STEPS);
+    }
+}
@@ -0,0 +1,49 @@
+// File: bench/src/main/java/rocket/bench/PredictionBench.java
+package rocket.bench;
+
+import org.openjdk.jmh.annotations.*;
+import rocket.PredictionCache;
+import rocket.PredictionMode;
+
+import java.util.concurrent.TimeUnit;
+
+/** The prediction cache: a full rebuild versus the per-frame incremental update. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredictionBench {
+    @Param({"leo", "lunar", "helio"})
+    public String fixture;
+
+    @Param({"NUMERIC", "CONIC"})
+    public String mode;
+
+    private rocket.State s;
+    private PredictionCache cache;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        s = Fixtures.state(fixture);
+        s.predMode = PredictionMode.valueOf(mode);
+        cache = new PredictionCache();
+        cache.update(s);
+    }
+
+    @Benchmark
+    public int rebuild(){
+        s.predEpoch++;
+        cache.update(s);
+        return cache.size();
+    }
+
+    /** One frame of sim time at 1× later: drop the expired head, extend the tail. */
+    @Benchmark
+    public int incremental(){
+        s.simTimeSec += 1.0 / rocket.Config.FPS;
+        cache.update(s);
+        return cache.size();
+    }
+}
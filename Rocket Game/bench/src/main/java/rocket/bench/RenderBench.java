@@ -0,0 +1,81 @@
+// File: bench/src/main/java/rocket/bench/RenderBench.java
+package rocket.bench;
+
+import org.openjdk.jmh.annotations.*;
+import rocket.Config;
+import rocket.DrawBodies;
+import rocket.DrawFleet;
+import rocket.DrawHud;
+import rocket.DrawOrbits;
+import rocket.DrawPrediction;
+import rocket.DrawRocket;
+import rocket.DrawStars;
+import rocket.PredictionCache;
+import rocket.Render;
+import rocket.SimPanel;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offscreen rendering of each Draw* layer into a BufferedImage, at zoom levels from the launch
+ * pad (rocket fills the screen) out to the whole solar system. Runs headless.
+ *
+ * The prediction is computed once in setup and pinned, so the background predictor never runs
+ * alongside the measured draws.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBench {
+    @Param({"pad", "leo", "fleet"})
+    public String fixture;
+
+    /** Pixels per metre: close-up, surface horizon, planet disc, solar system. */
+    @Param({"1.0", "1e-3", "1e-5", "1e-10"})
+    public double zoom;
+
+    @Param({"all", "stars", "orbits", "bodies", "fleet", "prediction", "rocket", "hud"})
+    public String layer;
+
+    private rocket.State s;
+    private SimPanel panel;
+    private BufferedImage img;
+    private Graphics2D g2;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        s = Fixtures.state(fixture);
+        panel = Fixtures.panel(s, Config.W, Config.H, zoom);
+        img = new BufferedImage(Config.W, Config.H, BufferedImage.TYPE_INT_RGB);
+        g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        PredictionCache pred = new PredictionCache();
+        pred.update(s);
+        DrawPrediction.pin(pred.export(s.predEpoch));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){ DrawPrediction.pin(null); g2.dispose(); }
+
+    @Benchmark
+    public BufferedImage draw(){
+        switch (layer) {
+            case "all":        Render.drawAll(g2, panel, s, null); break;
+            case "stars":      DrawStars.draw(g2, panel, null); break;
+            case "orbits":     DrawOrbits.draw(g2, panel, s); break;
+            case "bodies":     DrawBodies.renderBodies(g2, panel, s, null); break;
+            case "fleet":      DrawFleet.draw(g2, panel, s); break;
+            case "prediction": DrawPrediction.draw(g2, panel, s, null); break;
+            case "rocket":     DrawRocket.draw(g2, panel, s, null); break;
+            case "hud":        DrawHud.draw(g2, panel, s, null); break;
+            default: throw new IllegalArgumentException(layer);
+        }
+        return img;
+    }
+}